@@ -6,10 +6,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
@@ -19,49 +21,52 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class BookingController {
+	private static final String AFTER_PATTERN = "\\d{4}-\\d{2}-\\d{2}T[\\d:.]+,\\d+";
 	private final BookingClient bookingClient;
 	private final String header = "X-Sharer-User-Id";
 
 	@GetMapping
-	public ResponseEntity<Object> getBookings(@RequestHeader(header) long userId,
+	public Mono<ResponseEntity<Object>> getBookings(@RequestHeader(header) long userId,
 											  @RequestParam(name = "state", defaultValue = "all") String stateParam,
+											  @Pattern(regexp = AFTER_PATTERN) @RequestParam(name = "after", required = false) String after,
 											  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
 											  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookings(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, after={}, from={}, size={}", stateParam, userId, after, from, size);
+		return bookingClient.getBookings(userId, state, after, from, size);
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> bookItem(@RequestHeader(header) long userId,
+	public Mono<ResponseEntity<Object>> bookItem(@RequestHeader(header) long userId,
 										   @RequestBody @Valid BookItemRequestDto requestDto) {
 		log.info("Creating booking {}, userId={}", requestDto, userId);
 		return bookingClient.bookItem(userId, requestDto);
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader(header) long userId,
+	public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(header) long userId,
 											 @PathVariable Long bookingId) {
 		log.info("Get booking {}, userId={}", bookingId, userId);
 		return bookingClient.getBooking(userId, bookingId);
 	}
 
 	@GetMapping("/owner")
-	public Object getAllByOwner(@RequestHeader(header) Long userId,
+	public Mono<ResponseEntity<Object>> getAllByOwner(@RequestHeader(header) Long userId,
 								@RequestParam(name = "state",
 										required = false,
 										defaultValue = "ALL") String state,
+								@Pattern(regexp = AFTER_PATTERN) @RequestParam(name = "after", required = false) String after,
 								@RequestParam(name = "from", defaultValue = "0") Integer from,
 								@RequestParam(name = "size", defaultValue = "10") Integer size) {
 		BookingState currentState = BookingState.from(state)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + state));
 		log.info("Получение списка всех бронирований текущего владельца id = {}", userId);
-		return bookingClient.getAllByOwner(userId, currentState, from, size);
+		return bookingClient.getAllByOwner(userId, currentState, after, from, size);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public Object update(@PathVariable Long bookingId,
+	public Mono<ResponseEntity<Object>> update(@PathVariable Long bookingId,
 						 @RequestHeader(header) Long userId,
 						 @RequestParam Boolean approved) {
 		log.info("Получен запрос на обновление статуса бронирования id " + bookingId + ", пользователем id: " + userId);
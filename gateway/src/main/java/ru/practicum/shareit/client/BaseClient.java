@@ -1,121 +1,263 @@
 package ru.practicum.shareit.client;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
-import org.springframework.http.HttpEntity;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade", "content-length");
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    protected final WebClient webClient;
+    private final String resource;
+    private final WireFormat wireFormat;
+    private final boolean passthrough;
+    @Nullable
+    private final RequestCoalescer coalescer;
+    @Nullable
+    private final ResponseCache responseCache;
+
+    public BaseClient(String resource, WebClient webClient) {
+        this(resource, webClient, WireFormat.JSON, false, null, null);
+    }
+
+    public BaseClient(String resource, WebClient webClient, WireFormat wireFormat, boolean passthrough,
+                      @Nullable RequestCoalescer coalescer, @Nullable ResponseCache responseCache) {
+        this.resource = resource;
+        this.webClient = webClient;
+        this.wireFormat = wireFormat;
+        this.passthrough = passthrough && wireFormat == WireFormat.JSON;
+        this.coalescer = coalescer;
+        this.responseCache = responseCache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        String key = requestKey(path, userId, parameters);
+        if (coalescer == null) {
+            return Mono.defer(() -> getCached(key, path, userId, parameters));
+        }
+        return coalescer.coalesce(key, () -> getCached(key, path, userId, parameters));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    private Mono<ResponseEntity<Object>> getCached(String key, String path, Long userId, @Nullable Map<String, Object> parameters) {
+        if (responseCache == null || !responseCache.isEnabled()) {
+            return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null, List.of());
+        }
+
+        String readResource = resourceOf(path);
+        long generation = responseCache.generation();
+        ResponseCache.Entry cached = responseCache.get(key);
+        if (cached == null) {
+            return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null, List.of())
+                    .map(response -> responseCache.store(key, readResource, generation, response));
+        }
+        if (responseCache.isFresh(cached)) {
+            return Mono.just(responseCache.hit(cached));
+        }
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, cached.getEtag(), List.of())
+                .map(response -> response.getStatusCode() == HttpStatus.NOT_MODIFIED
+                        ? responseCache.revalidated(key, generation, cached)
+                        : responseCache.store(key, readResource, generation, response));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return post(path, userId, parameters, body, affectedBy(path));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body,
+                                                    Collection<String> affected) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null, affected);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return put(path, userId, parameters, body, affectedBy(path));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body,
+                                                   Collection<String> affected) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null, affected);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return patch(path, userId, parameters, body, affectedBy(path));
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body,
+                                                     Collection<String> affected) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null, affected);
+    }
+
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return delete(path, userId, parameters, affectedBy(path));
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                  Collection<String> affected) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null, affected);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, @Nullable String ifNoneMatch, Collection<String> affected) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    headers.addAll(defaultHeaders(userId));
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                });
+
+        WebClient.RequestHeadersSpec<?> requestSpec = body != null ? request.bodyValue(body) : request;
+
+        return exchange(requestSpec, affected);
+    }
+
+    protected Mono<ResponseEntity<Object>> postStream(String path, long userId, MediaType contentType,
+                                                      Flux<DataBuffer> body, Collection<String> affected) {
+        WebClient.RequestHeadersSpec<?> requestSpec = webClient.post()
+                .uri(path)
+                .headers(headers -> {
+                    headers.addAll(defaultHeaders(userId));
+                    headers.setContentType(contentType);
+                })
+                .body(BodyInserters.fromDataBuffers(body));
+
+        return exchange(requestSpec, affected);
+    }
+
+    private Mono<ResponseEntity<Object>> exchange(WebClient.RequestHeadersSpec<?> requestSpec, Collection<String> affected) {
+        Mono<ResponseEntity<Object>> response = requestSpec.exchangeToMono(clientResponse -> passthrough
+                ? clientResponse.toEntity(byte[].class).map(BaseClient::preparePassthroughResponse)
+                : prepareDecodedResponse(clientResponse));
+
+        if (affected.isEmpty() || responseCache == null) {
+            return response;
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return response
+                .doOnSuccess(result -> responseCache.invalidate(affected))
+                .doOnError(error -> responseCache.invalidate(affected))
+                .doOnCancel(() -> responseCache.invalidate(affected));
+    }
+
+    private List<String> affectedBy(String path) {
+        String pathResource = resourceOf(path);
+        return pathResource.equals(resource) ? List.of(resource) : List.of(resource, pathResource);
+    }
+
+    private String resourceOf(String path) {
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = start;
+        while (end < path.length() && Character.isDigit(path.charAt(end))) {
+            end++;
+        }
+        boolean idSegment = end > start && (end == path.length() || path.charAt(end) == '/' || path.charAt(end) == '?');
+        return idSegment ? resource + "/" + path.substring(start, end) : resource;
+    }
+
+    private String requestKey(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return getClass().getName() + " " + path + " " + (parameters != null ? new TreeMap<>(parameters) : Map.of()) + " " + userId;
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setContentType(wireFormat.getMediaType());
+        headers.setAccept(List.of(wireFormat.getMediaType()));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    private static ResponseEntity<Object> preparePassthroughResponse(ResponseEntity<byte[]> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(passthroughHeaders(response.getHeaders()))
+                .body(response.getBody());
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static HttpHeaders passthroughHeaders(HttpHeaders headers) {
+        HttpHeaders result = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                result.addAll(name, values);
+            }
+        });
+        return result;
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private Mono<ResponseEntity<Object>> prepareDecodedResponse(ClientResponse response) {
+        if (response.statusCode().is2xxSuccessful()) {
+            return response.toEntity(Object.class).map(BaseClient::prepareGatewayResponse);
         }
 
-        return responseBuilder.build();
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.rawStatusCode());
+        Mono<?> body = wireFormat == WireFormat.JSON
+                ? response.bodyToMono(byte[].class)
+                : response.bodyToMono(Object.class);
+
+        return body.<ResponseEntity<Object>>map(responseBuilder::body)
+                .defaultIfEmpty(responseBuilder.build());
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+        HttpHeaders headers = passthroughHeaders(response.getHeaders());
+        headers.remove(HttpHeaders.CONTENT_TYPE);
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(headers)
+                .body(response.getBody());
     }
 }
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Component
+public class RequestCoalescer {
+    private final ConcurrentMap<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter upstreamCounter;
+    private final Counter collapsedCounter;
+
+    public RequestCoalescer(ShareItServerProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isCoalescing();
+        this.upstreamCounter = Counter.builder("shareit.gateway.coalescing")
+                .description("Чтения через слой объединения одинаковых запросов")
+                .tag("result", "upstream")
+                .register(meterRegistry);
+        this.collapsedCounter = Counter.builder("shareit.gateway.coalescing")
+                .description("Чтения через слой объединения одинаковых запросов")
+                .tag("result", "collapsed")
+                .register(meterRegistry);
+    }
+
+    public Mono<ResponseEntity<Object>> coalesce(String key, Supplier<Mono<ResponseEntity<Object>>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        return Mono.defer(() -> {
+            AtomicReference<Mono<ResponseEntity<Object>>> created = new AtomicReference<>();
+            Mono<ResponseEntity<Object>> shared = inFlight.computeIfAbsent(key, k -> {
+                Mono<ResponseEntity<Object>> upstream = Mono.defer(call)
+                        .doFinally(signal -> inFlight.remove(k, created.get()))
+                        .cache();
+                created.set(upstream);
+                return upstream;
+            });
+            if (shared == created.get()) {
+                upstreamCounter.increment();
+            } else {
+                collapsedCounter.increment();
+            }
+            return shared;
+        });
+    }
+}
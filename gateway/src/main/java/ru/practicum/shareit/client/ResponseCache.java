@@ -0,0 +1,163 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+public class ResponseCache {
+    public static final String ALL = "/*";
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final Map<String, Map<String, Set<String>>> keysByResource = new HashMap<>();
+    private long generation;
+    private final Counter hitCounter;
+    private final Counter revalidatedCounter;
+    private final Counter missCounter;
+
+    public ResponseCache(ShareItServerProperties properties, MeterRegistry meterRegistry) {
+        ShareItServerProperties.Cache cache = properties.getCache();
+        int maxEntries = cache.getMaxEntries();
+        this.enabled = cache.isEnabled();
+        this.ttlNanos = cache.getTtl().toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                unindex(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+        this.hitCounter = counter(meterRegistry, "hit");
+        this.revalidatedCounter = counter(meterRegistry, "revalidated");
+        this.missCounter = counter(meterRegistry, "miss");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public boolean isFresh(Entry entry) {
+        return System.nanoTime() - entry.storedAt < ttlNanos;
+    }
+
+    public ResponseEntity<Object> hit(Entry entry) {
+        hitCounter.increment();
+        return entry.response;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public ResponseEntity<Object> store(String key, String resource, long readGeneration,
+                                        ResponseEntity<Object> response) {
+        String etag = response.getHeaders().getETag();
+        if (response.getStatusCode().is2xxSuccessful() && etag != null) {
+            synchronized (this) {
+                if (generation == readGeneration) {
+                    put(key, new Entry(resource, etag, response));
+                }
+            }
+        }
+        missCounter.increment();
+        return response;
+    }
+
+    public synchronized ResponseEntity<Object> revalidated(String key, long readGeneration, Entry entry) {
+        revalidatedCounter.increment();
+        if (generation == readGeneration) {
+            put(key, new Entry(entry.resource, entry.etag, entry.response));
+        }
+        return entry.response;
+    }
+
+    public synchronized void invalidate(Collection<String> resources) {
+        generation++;
+        for (String resource : resources) {
+            Map<String, Set<String>> family = keysByResource.get(family(resource));
+            if (family == null) {
+                continue;
+            }
+            if (resource.endsWith(ALL)) {
+                family.values().forEach(keys -> keys.forEach(entries::remove));
+                keysByResource.remove(family(resource));
+                continue;
+            }
+            Set<String> keys = family.remove(resource);
+            if (keys != null) {
+                keys.forEach(entries::remove);
+            }
+            if (family.isEmpty()) {
+                keysByResource.remove(family(resource));
+            }
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            unindex(key, previous);
+        }
+        keysByResource.computeIfAbsent(family(entry.resource), family -> new HashMap<>())
+                .computeIfAbsent(entry.resource, resource -> new HashSet<>())
+                .add(key);
+    }
+
+    private void unindex(String key, Entry entry) {
+        Map<String, Set<String>> family = keysByResource.get(family(entry.resource));
+        if (family == null) {
+            return;
+        }
+        Set<String> keys = family.get(entry.resource);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            family.remove(entry.resource);
+            if (family.isEmpty()) {
+                keysByResource.remove(family(entry.resource));
+            }
+        }
+    }
+
+    private static String family(String resource) {
+        int slash = resource.indexOf('/');
+        return slash < 0 ? resource : resource.substring(0, slash);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("shareit.gateway.cache")
+                .description("Чтения через кэш ответов сервера")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Getter
+    public static class Entry {
+        private final String resource;
+        private final String etag;
+        private final ResponseEntity<Object> response;
+        private final long storedAt = System.nanoTime();
+
+        private Entry(String resource, String etag, ResponseEntity<Object> response) {
+            this.resource = resource;
+            this.etag = etag;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server")
+public class ShareItServerProperties {
+    private String url;
+    private WireFormat wireFormat = WireFormat.JSON;
+    private boolean passthrough = true;
+    private boolean coalescing = true;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    private Duration importTimeout = Duration.ofMinutes(10);
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(16);
+    private final Pool pool = new Pool();
+    private final Cache cache = new Cache();
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private int maxConnections = 200;
+        private Duration acquireTimeout = Duration.ofSeconds(2);
+        private Duration keepAlive = Duration.ofSeconds(30);
+        private Duration idleEviction = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = true;
+        private int maxEntries = 10000;
+        private Duration ttl = Duration.ZERO;
+    }
+}
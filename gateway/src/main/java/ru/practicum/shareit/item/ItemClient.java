@@ -1,56 +1,111 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ShareItServerProperties;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(ShareItServerProperties properties, WebClient.Builder builder,
+                      RequestCoalescer coalescer, ResponseCache responseCache) {
         super(
+                "items",
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(properties.getUrl() + API_PREFIX)
+                        .build(),
+                properties.getWireFormat(),
+                properties.isPassthrough(),
+                coalescer,
+                responseCache
         );
     }
 
-    public Object getAll(Long userId) {
+    public Mono<ResponseEntity<Object>> getAll(Long userId) {
         return get("", userId);
     }
 
-    public Object create(ItemDto itemDto, Long userId) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<Object>> create(ItemDto itemDto, Long userId) {
+        return post("", userId, null, itemDto, affectedByCreate(List.of(itemDto)));
     }
 
-    public Object update(Long itemId, ItemDto itemDto, Long userId) {
-        return patch("/" + itemId, userId, itemDto);
+    public Mono<ResponseEntity<Object>> createAll(List<ItemDto> itemDtos, Long userId) {
+        return post("/batch", userId, null, itemDtos, affectedByCreate(itemDtos));
     }
 
-    public Object search(String text) {
+    public Mono<ResponseEntity<Object>> importItems(Flux<DataBuffer> body, Long userId) {
+        return postStream("/bulk", userId, MediaType.APPLICATION_NDJSON, body,
+                List.of("items", "requests" + ResponseCache.ALL));
+    }
+
+    public Mono<ResponseEntity<Object>> update(Long itemId, ItemDto itemDto, Long userId) {
+        return patch("/" + itemId, userId, null, itemDto,
+                List.of("items", "items/" + itemId, "bookings" + ResponseCache.ALL, "requests" + ResponseCache.ALL));
+    }
+
+    public Mono<ResponseEntity<Object>> search(String text, String after, Integer from, Integer size) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "text", text,
+                    "after", after,
+                    "size", size
+            );
+            return get("/search?text={text}&after={after}&size={size}", null, parameters);
+        }
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "text", text,
+                "from", from,
+                "size", size
         );
-        return get("/search?text={text}", null, parameters);
+        return get("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
-    public Object createComment(Long userId, Long itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> createComment(Long userId, Long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
-    public Object getById(Long itemId, Long userId) {
+    public Mono<ResponseEntity<Object>> getById(Long itemId, Long userId) {
         return get("/" + itemId, userId);
     }
-}
 
+    public Mono<ResponseEntity<Object>> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    private static Set<String> affectedByCreate(List<ItemDto> itemDtos) {
+        Set<String> affected = new LinkedHashSet<>();
+        affected.add("items");
+        itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .forEach(requestId -> {
+                    affected.add("requests");
+                    affected.add("requests/" + requestId);
+                });
+        return affected;
+    }
+}
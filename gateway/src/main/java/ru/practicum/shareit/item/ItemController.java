@@ -2,14 +2,39 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.DeferredResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import ru.practicum.shareit.client.ShareItServerProperties;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -17,24 +42,54 @@ import java.time.LocalDateTime;
 @Slf4j
 @Validated
 public class ItemController {
+    private static final String AFTER_PATTERN = "\\d+,\\d+";
     private final ItemClient itemClient;
+    private final ShareItServerProperties properties;
+    private final Scheduler uploadScheduler;
+    private static final int BUFFER_SIZE = 8192;
+    private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
     private final String header = "X-Sharer-User-Id";
 
     @GetMapping
-    public Object getAll(@RequestHeader(header) Long userId) {
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader(header) Long userId) {
         log.info("Получен запрос на получение списка вещей владельца с id = {}", userId);
         return itemClient.getAll(userId);
     }
 
     @PostMapping()
-    public Object create(@RequestHeader(header) Long userId,
+    public Mono<ResponseEntity<Object>> create(@RequestHeader(header) Long userId,
                          @RequestBody @Valid ItemDto itemDto) {
         log.info("Получен запрос на добавление вещи для пользователя с id = {}", userId);
         return itemClient.create(itemDto, userId);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createAll(@RequestHeader(header) Long userId,
+                         @RequestBody @NotEmpty @Size(max = 1000) List<@Valid ItemDto> itemDtos) {
+        log.info("Получен запрос на добавление {} вещей для пользователя с id = {}", itemDtos.size(), userId);
+        return itemClient.createAll(itemDtos, userId);
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public DeferredResult<ResponseEntity<Object>> importItems(@RequestHeader(header) Long userId,
+                         HttpServletRequest request) throws IOException {
+        log.info("Получен запрос на импорт вещей для пользователя с id = {}", userId);
+        UploadInputStream input = new UploadInputStream(request.getInputStream());
+        Flux<DataBuffer> body = DataBufferUtils.readInputStream(() -> input, bufferFactory, BUFFER_SIZE)
+                .subscribeOn(uploadScheduler);
+        DeferredResult<ResponseEntity<Object>> result = new DeferredResult<>(0L);
+        itemClient.importItems(body, userId)
+                .timeout(properties.getImportTimeout())
+                .onErrorMap(TimeoutException.class, e -> new AsyncRequestTimeoutException())
+                .materialize()
+                .delayUntil(signal -> Mono.fromRunnable(input::detach).subscribeOn(uploadScheduler))
+                .<ResponseEntity<Object>>dematerialize()
+                .subscribe(result::setResult, result::setErrorResult);
+        return result;
+    }
+
     @PatchMapping("/{itemId}")
-    public Object update(@RequestHeader(header) Long userId,
+    public Mono<ResponseEntity<Object>> update(@RequestHeader(header) Long userId,
                          @RequestBody ItemDto itemDto,
                          @PathVariable Long itemId) {
         log.info("Получен запрос на получение обновления вещи с id = {}", itemId);
@@ -42,13 +97,16 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public Object search(@RequestParam String text) {
+    public Mono<ResponseEntity<Object>> search(@RequestParam String text,
+                         @Pattern(regexp = AFTER_PATTERN) @RequestParam(name = "after", required = false) String after,
+                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Получен запрос на поиск вещи в аренду ");
-        return itemClient.search(text);
+        return itemClient.search(text, after, from, size);
     }
 
     @PostMapping("{itemId}/comment")
-    public Object createComment(@Valid @RequestBody CommentDto commentDto,
+    public Mono<ResponseEntity<Object>> createComment(@Valid @RequestBody CommentDto commentDto,
                                 @PathVariable Long itemId,
                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Получен запрос на добавление отзыва от пользователя с id = {}", userId);
@@ -57,9 +115,47 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public Object getById(@PathVariable Long itemId,
+    public Mono<ResponseEntity<Object>> getById(@PathVariable Long itemId,
                           @RequestHeader(header) Long userId) {
         log.info("Получен запрос на поиск вещи с id = {}", itemId);
         return itemClient.getById(itemId, userId);
     }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@PathVariable Long itemId,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Неверные параметры для времени");
+        }
+        log.info("Получен запрос на проверку доступности вещи с id = {}", itemId);
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
+    private static class UploadInputStream extends FilterInputStream {
+        private volatile boolean detached;
+
+        UploadInputStream(InputStream in) {
+            super(in);
+        }
+
+        synchronized void detach() {
+            detached = true;
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            return detached ? -1 : super.read();
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            return detached ? -1 : super.read(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            detached = true;
+        }
+    }
 }
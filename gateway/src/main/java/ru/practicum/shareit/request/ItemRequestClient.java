@@ -1,12 +1,14 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ShareItServerProperties;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -16,24 +18,36 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(ShareItServerProperties properties, WebClient.Builder builder,
+                             RequestCoalescer coalescer, ResponseCache responseCache) {
         super(
+                "requests",
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(properties.getUrl() + API_PREFIX)
+                        .build(),
+                properties.getWireFormat(),
+                properties.isPassthrough(),
+                coalescer,
+                responseCache
         );
     }
 
-    public Object create(ItemRequestDto itemRequestDto, Long userId) {
+    public Mono<ResponseEntity<Object>> create(ItemRequestDto itemRequestDto, Long userId) {
         return post("", userId, itemRequestDto);
     }
 
-    public Object getAllByUser(Long userId) {
+    public Mono<ResponseEntity<Object>> getAllByUser(Long userId) {
         return get("", userId);
     }
 
-    public Object getAll(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getAll(long userId, String after, int from, int size) {
+        if (after != null) {
+            Map<String, Object> params = Map.of(
+                    "after", after,
+                    "size", size
+            );
+            return get("/all?after={after}&size={size}", userId, params);
+        }
         Map<String, Object> params = Map.of(
                 "from", from,
                 "size", size
@@ -41,7 +55,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, params);
     }
 
-    public Object getRequestById(long userId, long requestId) {
+    public Mono<ResponseEntity<Object>> getRequestById(long userId, long requestId) {
        return get("/" + requestId, userId);
     }
 }
@@ -2,12 +2,15 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
@@ -17,33 +20,35 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class ItemRequestController {
+    private static final String AFTER_PATTERN = "\\d{4}-\\d{2}-\\d{2}T[\\d:.]+,\\d+";
 
     private final ItemRequestClient requestClient;
     private final String header = "X-Sharer-User-Id";
 
     @PostMapping
-    public Object create(@Valid @RequestBody ItemRequestDto itemRequestDto,
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody ItemRequestDto itemRequestDto,
                          @RequestHeader(header) Long userId) {
         log.info("Получен запрос от пользователя с id = {}", userId);
         return requestClient.create(itemRequestDto, userId);
     }
 
     @GetMapping
-    public Object getAllByUser(@RequestHeader(header) Long userId) {
+    public Mono<ResponseEntity<Object>> getAllByUser(@RequestHeader(header) Long userId) {
         log.info("Получен запрос на поиск всех созданных запросов для пользователя с id = {}", userId);
         return requestClient.getAllByUser(userId);
     }
 
     @GetMapping("/all")
-    public Object getAll(@RequestHeader(header) long userId,
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader(header) long userId,
+                         @Pattern(regexp = AFTER_PATTERN) @RequestParam(name = "after", required = false) String after,
                          @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
                          @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
         log.info("Получение списока созданных запросов для пользователя с id = {}", userId);
-        return requestClient.getAll(userId, from, size);
+        return requestClient.getAll(userId, after, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public Object getById(@RequestHeader(header) long userId,
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader(header) long userId,
                           @PathVariable("requestId") long requestId) {
         log.info("Получение запроса по идентификатору = {}", requestId);
         return requestClient.getRequestById(userId, requestId);
@@ -1,45 +1,57 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ShareItServerProperties;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(ShareItServerProperties properties, WebClient.Builder builder,
+                      RequestCoalescer coalescer, ResponseCache responseCache) {
         super(
+                "users",
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(properties.getUrl() + API_PREFIX)
+                        .build(),
+                properties.getWireFormat(),
+                properties.isPassthrough(),
+                coalescer,
+                responseCache
         );
     }
 
-    public Object getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return get("");
     }
 
-    public Object getById(Long userId) {
+    public Mono<ResponseEntity<Object>> getById(Long userId) {
         return get("/" + userId);
     }
 
-    public Object create(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> create(UserDto userDto) {
         return post("", userDto);
     }
 
-    public Object update(Long userId, UserDto userDto) {
-        return patch("/" + userId, userDto);
+    public Mono<ResponseEntity<Object>> update(Long userId, UserDto userDto) {
+        return patch("/" + userId, null, null, userDto,
+                List.of("users", "users/" + userId, "items" + ResponseCache.ALL, "bookings" + ResponseCache.ALL));
     }
 
-    public Object deleteUser(Long userId) {
-        return delete("/" + userId);
+    public Mono<ResponseEntity<Object>> deleteUser(Long userId) {
+        return delete("/" + userId, null, null,
+                List.of("users", "users/" + userId, "items" + ResponseCache.ALL, "bookings" + ResponseCache.ALL,
+                        "requests" + ResponseCache.ALL));
     }
 }
@@ -2,9 +2,11 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
@@ -20,31 +22,31 @@ public class UserController {
     private final String header = "X-Sharer-User-Id";
 
     @GetMapping
-    public Object getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         log.info("Получен запрос на получение всех пользователей");
         return userClient.getAll();
     }
 
     @GetMapping("/{userId}")
-    public Object getById(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable Long userId) {
         log.info("Получен запрос на получение пользователя");
         return userClient.getById(userId);
     }
 
     @PostMapping
-    public Object create(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody UserDto userDto) {
         log.info("Получен запрос на добавление пользователя");
         return userClient.create(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public Object update(@PathVariable Long userId, @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> update(@PathVariable Long userId, @RequestBody UserDto userDto) {
         log.info("Получен запрос на обновление пользователя с id = {}", userId);
         return userClient.update(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public Object deleteById(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> deleteById(@PathVariable Long userId) {
         log.info("Получен запрос на удаление пользователя с id = {}", userId);
         return userClient.deleteUser(userId);
     }
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CacheInvalidationTest {
+    private static final long USER_ID = 1L;
+
+    private final Map<String, AtomicInteger> reads = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ItemClient itemClient;
+    private BookingClient bookingClient;
+    private ItemRequestClient itemRequestClient;
+    private UserClient userClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if ("GET".equals(exchange.getRequestMethod())) {
+                reads.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+                exchange.getResponseHeaders().set(HttpHeaders.ETAG, "\"" + path.hashCode() + "\"");
+            }
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+
+        ShareItServerProperties properties = new ShareItServerProperties();
+        properties.setUrl("http://localhost:" + server.getAddress().getPort());
+        properties.getCache().setTtl(Duration.ofHours(1));
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RequestCoalescer coalescer = new RequestCoalescer(properties, meterRegistry);
+        ResponseCache responseCache = new ResponseCache(properties, meterRegistry);
+
+        itemClient = new ItemClient(properties, WebClient.builder(), coalescer, responseCache);
+        bookingClient = new BookingClient(properties, WebClient.builder(), coalescer, responseCache);
+        itemRequestClient = new ItemRequestClient(properties, WebClient.builder(), coalescer, responseCache);
+        userClient = new UserClient(properties, WebClient.builder(), coalescer, responseCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void serveFreshEntriesFromCacheTest() {
+        itemClient.getById(5L, USER_ID).block();
+        itemClient.getById(5L, USER_ID).block();
+
+        assertEquals(1, reads("/items/5"));
+    }
+
+    @Test
+    void bookingInvalidatesBookedItemTest() {
+        itemClient.getById(5L, USER_ID).block();
+        itemClient.getById(6L, USER_ID).block();
+        itemClient.getAll(USER_ID).block();
+
+        bookingClient.bookItem(USER_ID, new BookItemRequestDto(5L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2))).block();
+        itemClient.getById(5L, USER_ID).block();
+        itemClient.getById(6L, USER_ID).block();
+        itemClient.getAll(USER_ID).block();
+
+        assertEquals(2, reads("/items/5"));
+        assertEquals(1, reads("/items/6"));
+        assertEquals(2, reads("/items"));
+    }
+
+    @Test
+    void approvalInvalidatesAllItemsTest() {
+        itemClient.getById(5L, USER_ID).block();
+        itemClient.getAvailability(6L, LocalDateTime.now(), LocalDateTime.now().plusDays(1)).block();
+        bookingClient.getBooking(USER_ID, 7L).block();
+        bookingClient.getBooking(USER_ID, 8L).block();
+
+        bookingClient.update(7L, USER_ID, true).block();
+        itemClient.getById(5L, USER_ID).block();
+        bookingClient.getBooking(USER_ID, 7L).block();
+        bookingClient.getBooking(USER_ID, 8L).block();
+
+        assertEquals(2, reads("/items/5"));
+        assertEquals(2, reads("/bookings/7"));
+        assertEquals(1, reads("/bookings/8"));
+    }
+
+    @Test
+    void itemForRequestInvalidatesRequestTest() {
+        itemRequestClient.getRequestById(USER_ID, 3L).block();
+        itemRequestClient.getRequestById(USER_ID, 4L).block();
+
+        itemClient.create(ItemDto.builder().name("Дрель").description("Простая дрель").available(true)
+                .requestId(3L).build(), USER_ID).block();
+        itemRequestClient.getRequestById(USER_ID, 3L).block();
+        itemRequestClient.getRequestById(USER_ID, 4L).block();
+
+        assertEquals(2, reads("/requests/3"));
+        assertEquals(1, reads("/requests/4"));
+    }
+
+    @Test
+    void itemWithoutRequestKeepsRequestsTest() {
+        itemRequestClient.getRequestById(USER_ID, 3L).block();
+
+        itemClient.create(ItemDto.builder().name("Дрель").description("Простая дрель").available(true)
+                .build(), USER_ID).block();
+        itemRequestClient.getRequestById(USER_ID, 3L).block();
+
+        assertEquals(1, reads("/requests/3"));
+    }
+
+    @Test
+    void userDeletionInvalidatesEverythingTest() {
+        userClient.getById(2L).block();
+        itemClient.getById(5L, USER_ID).block();
+        bookingClient.getBooking(USER_ID, 7L).block();
+        itemRequestClient.getRequestById(USER_ID, 3L).block();
+
+        userClient.deleteUser(2L).block();
+        userClient.getById(2L).block();
+        itemClient.getById(5L, USER_ID).block();
+        bookingClient.getBooking(USER_ID, 7L).block();
+        itemRequestClient.getRequestById(USER_ID, 3L).block();
+
+        assertEquals(2, reads("/users/2"));
+        assertEquals(2, reads("/items/5"));
+        assertEquals(2, reads("/bookings/7"));
+        assertEquals(2, reads("/requests/3"));
+    }
+
+    @Test
+    void userUpdateKeepsOtherUsersTest() {
+        userClient.getById(2L).block();
+        userClient.getById(3L).block();
+
+        userClient.update(2L, new UserDto()).block();
+        userClient.getById(2L).block();
+        userClient.getById(3L).block();
+
+        assertEquals(2, reads("/users/2"));
+        assertEquals(1, reads("/users/3"));
+    }
+
+    private int reads(String path) {
+        AtomicInteger count = reads.get(path);
+        return count == null ? 0 : count.get();
+    }
+}
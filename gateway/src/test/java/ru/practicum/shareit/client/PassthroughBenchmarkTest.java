@@ -0,0 +1,185 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Run with: mvn -pl gateway test -Dtest=PassthroughBenchmarkTest -Dshareit.benchmark=true
+ *
+ * A stub server returns a GET /items page of ITEMS items (about 300KB of JSON). Each mode first runs WARMUP
+ * requests, then ITERATIONS measured requests one after another. Each request goes through BaseClient and
+ * is then written out the way Spring MVC writes the controller's ResponseEntity. Process CPU time and bytes
+ * allocated by all threads are reported per request.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+public class PassthroughBenchmarkTest {
+    private static final int ITEMS = 500;
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 2000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final MappingJackson2HttpMessageConverter JSON_CONVERTER = new MappingJackson2HttpMessageConverter(MAPPER);
+    private static final ByteArrayHttpMessageConverter BYTES_CONVERTER = new ByteArrayHttpMessageConverter();
+
+    private static HttpServer server;
+    private static ExecutorService serverExecutor;
+    private static byte[] payload;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        payload = MAPPER.writeValueAsBytes(items());
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items", exchange -> {
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, payload.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(payload);
+            }
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void passthroughCostsLessThanDecodingTest() throws IOException {
+        BaseClient decoding = client(false);
+        BaseClient passthrough = client(true);
+
+        assertArrayEquals(payload, write(decoding.get("").block()));
+        assertArrayEquals(payload, write(passthrough.get("").block()));
+
+        Sample decoded = measure(decoding);
+        Sample passed = measure(passthrough);
+        log.info("{} items, {} bytes per response, {} requests per mode", ITEMS, payload.length, ITERATIONS);
+        log.info("decoded:     {}", decoded);
+        log.info("passthrough: {}", passed);
+
+        assertTrue(passed.allocatedBytes < decoded.allocatedBytes, passed + " vs " + decoded);
+        assertTrue(passed.cpuNanos < decoded.cpuNanos, passed + " vs " + decoded);
+    }
+
+    private static BaseClient client(boolean passthrough) {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort() + "/items")
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+        return new BaseClient("items", webClient, WireFormat.JSON, passthrough, null, null);
+    }
+
+    private static Sample measure(BaseClient client) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            write(client.get("").block());
+        }
+
+        long cpuBefore = processCpuTime();
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            write(client.get("").block());
+        }
+        return new Sample((processCpuTime() - cpuBefore) / ITERATIONS,
+                (allocatedBytes() - allocatedBefore) / ITERATIONS);
+    }
+
+    private static byte[] write(ResponseEntity<Object> response) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        Object body = response.getBody();
+        if (body instanceof byte[]) {
+            BYTES_CONVERTER.write((byte[]) body, MediaType.APPLICATION_JSON, output);
+        } else {
+            JSON_CONVERTER.write(body, MediaType.APPLICATION_JSON, output);
+        }
+        return output.getBodyAsBytes();
+    }
+
+    private static long processCpuTime() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(allocated, 0);
+        }
+        return total;
+    }
+
+    private static List<Map<String, Object>> items() {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (long id = 1; id <= ITEMS; id++) {
+            Map<String, Object> booking = new LinkedHashMap<>();
+            booking.put("id", id * 10);
+            booking.put("bookerId", id % 50 + 1);
+            booking.put("start", "2026-10-01T10:00:00");
+            booking.put("end", "2026-10-02T10:00:00");
+
+            Map<String, Object> comment = new LinkedHashMap<>();
+            comment.put("id", id * 100);
+            comment.put("text", "Отличная вещь, всё работает, вернул вовремя");
+            comment.put("authorName", "Пользователь " + id);
+            comment.put("created", "2026-10-03T12:30:00");
+
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", id);
+            item.put("name", "Дрель " + id);
+            item.put("description", "Аккумуляторная дрель с двумя батареями и набором свёрл, номер " + id);
+            item.put("available", id % 3 != 0);
+            item.put("requestId", id % 4 == 0 ? id / 4 : null);
+            item.put("lastBooking", booking);
+            item.put("nextBooking", null);
+            item.put("comments", List.of(comment, comment));
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static class Sample {
+        private final long cpuNanos;
+        private final long allocatedBytes;
+
+        Sample(long cpuNanos, long allocatedBytes) {
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d us CPU, %d KB allocated per request", cpuNanos / 1000, allocatedBytes / 1024);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RequestCoalescerTest {
+    private static final String KEY = "ItemClient /1 {} 1";
+
+    private MeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+    private Sinks.One<ResponseEntity<Object>> upstream;
+    private AtomicInteger calls;
+    private Supplier<Mono<ResponseEntity<Object>>> call;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = coalescer(true);
+        upstream = Sinks.one();
+        calls = new AtomicInteger();
+        call = () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        };
+    }
+
+    @Test
+    void collapseConcurrentCallsTest() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> first = coalescer.coalesce(KEY, call).toFuture();
+        CompletableFuture<ResponseEntity<Object>> second = coalescer.coalesce(KEY, call).toFuture();
+
+        assertEquals(1, calls.get());
+        assertFalse(first.isDone());
+
+        ResponseEntity<Object> response = ResponseEntity.ok("item");
+        upstream.tryEmitValue(response);
+
+        assertSame(response, first.get());
+        assertSame(response, second.get());
+        assertEquals(1, count("upstream"));
+        assertEquals(1, count("collapsed"));
+    }
+
+    @Test
+    void fanOutToAllWaitersTest() throws Exception {
+        List<CompletableFuture<ResponseEntity<Object>>> waiters = IntStream.range(0, 50)
+                .mapToObj(i -> coalescer.coalesce(KEY, call).toFuture())
+                .collect(Collectors.toList());
+
+        ResponseEntity<Object> response = ResponseEntity.ok("item");
+        upstream.tryEmitValue(response);
+
+        assertEquals(1, calls.get());
+        for (CompletableFuture<ResponseEntity<Object>> waiter : waiters) {
+            assertSame(response, waiter.get());
+        }
+        assertEquals(1, count("upstream"));
+        assertEquals(49, count("collapsed"));
+    }
+
+    @Test
+    void propagateErrorToAllWaitersTest() {
+        CompletableFuture<ResponseEntity<Object>> first = coalescer.coalesce(KEY, call).toFuture();
+        CompletableFuture<ResponseEntity<Object>> second = coalescer.coalesce(KEY, call).toFuture();
+
+        IllegalStateException error = new IllegalStateException("Сервер недоступен");
+        upstream.tryEmitError(error);
+
+        assertSame(error, assertThrows(ExecutionException.class, first::get).getCause());
+        assertSame(error, assertThrows(ExecutionException.class, second::get).getCause());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void removeKeyAfterCompletionTest() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> first = coalescer.coalesce(KEY, call).toFuture();
+        upstream.tryEmitValue(ResponseEntity.ok("old"));
+        assertEquals("old", first.get().getBody());
+
+        upstream = Sinks.one();
+        CompletableFuture<ResponseEntity<Object>> second = coalescer.coalesce(KEY, call).toFuture();
+        upstream.tryEmitValue(ResponseEntity.ok("new"));
+
+        assertEquals("new", second.get().getBody());
+        assertEquals(2, calls.get());
+        assertEquals(2, count("upstream"));
+        assertEquals(0, count("collapsed"));
+    }
+
+    @Test
+    void removeKeyAfterErrorTest() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> first = coalescer.coalesce(KEY, call).toFuture();
+        upstream.tryEmitError(new IllegalStateException("Сервер недоступен"));
+        assertThrows(ExecutionException.class, first::get);
+
+        upstream = Sinks.one();
+        CompletableFuture<ResponseEntity<Object>> second = coalescer.coalesce(KEY, call).toFuture();
+        upstream.tryEmitValue(ResponseEntity.ok("item"));
+
+        assertEquals("item", second.get().getBody());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void keepDifferentKeysApartTest() {
+        coalescer.coalesce(KEY, call).toFuture();
+        coalescer.coalesce("ItemClient /2 {} 1", call).toFuture();
+
+        assertEquals(2, calls.get());
+        assertEquals(2, count("upstream"));
+        assertEquals(0, count("collapsed"));
+    }
+
+    @Test
+    void callEveryTimeWhenDisabledTest() {
+        coalescer = coalescer(false);
+
+        coalescer.coalesce(KEY, call).toFuture();
+        coalescer.coalesce(KEY, call).toFuture();
+
+        assertEquals(2, calls.get());
+        assertEquals(0, count("upstream"));
+        assertEquals(0, count("collapsed"));
+    }
+
+    @Test
+    void callOnlyOnSubscribeTest() {
+        Mono<ResponseEntity<Object>> response = coalescer.coalesce(KEY, call);
+
+        assertEquals(0, calls.get());
+        response.toFuture();
+        assertEquals(1, calls.get());
+        assertEquals(1, count("upstream"));
+    }
+
+    private RequestCoalescer coalescer(boolean enabled) {
+        ShareItServerProperties properties = new ShareItServerProperties();
+        properties.setCoalescing(enabled);
+        return new RequestCoalescer(properties, meterRegistry);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("shareit.gateway.coalescing").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResponseCacheTest {
+    private ShareItServerProperties properties;
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ShareItServerProperties();
+        properties.getCache().setTtl(Duration.ofHours(1));
+        cache = new ResponseCache(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void storeOnlyResponsesWithEtagTest() {
+        store("item 1", "items/1", ResponseEntity.ok().eTag("\"1\"").body("item"));
+        store("item 2", "items/2", ResponseEntity.ok("item"));
+        store("item 3", "items/3", ResponseEntity.notFound().eTag("\"3\"").build());
+
+        ResponseCache.Entry entry = cache.get("item 1");
+        assertNotNull(entry);
+        assertEquals("\"1\"", entry.getEtag());
+        assertTrue(cache.isFresh(entry));
+        assertNull(cache.get("item 2"));
+        assertNull(cache.get("item 3"));
+    }
+
+    @Test
+    void expireAfterTtlTest() {
+        properties.getCache().setTtl(Duration.ZERO);
+        cache = new ResponseCache(properties, new SimpleMeterRegistry());
+
+        store("item 1", "items/1", etagged());
+
+        assertFalse(cache.isFresh(cache.get("item 1")));
+    }
+
+    @Test
+    void invalidateOnlyNamedResourcesTest() {
+        store("items", "items", etagged());
+        store("item 1", "items/1", etagged());
+        store("item 2", "items/2", etagged());
+        store("requests", "requests", etagged());
+
+        cache.invalidate(List.of("items", "items/1"));
+
+        assertNull(cache.get("items"));
+        assertNull(cache.get("item 1"));
+        assertNotNull(cache.get("item 2"));
+        assertNotNull(cache.get("requests"));
+    }
+
+    @Test
+    void invalidateWholeResourceFamilyTest() {
+        store("items", "items", etagged());
+        store("item 1", "items/1", etagged());
+        store("item 1 availability", "items/1", etagged());
+        store("requests", "requests", etagged());
+
+        cache.invalidate(List.of("items" + ResponseCache.ALL));
+
+        assertNull(cache.get("items"));
+        assertNull(cache.get("item 1"));
+        assertNull(cache.get("item 1 availability"));
+        assertNotNull(cache.get("requests"));
+    }
+
+    @Test
+    void skipStoreOfReadOverlappingInvalidationTest() {
+        long generation = cache.generation();
+        cache.invalidate(List.of("items/1"));
+
+        cache.store("item 1", "items/1", generation, etagged());
+
+        assertNull(cache.get("item 1"));
+    }
+
+    @Test
+    void skipRevalidationOverlappingInvalidationTest() {
+        store("item 1", "items/1", etagged());
+        ResponseCache.Entry entry = cache.get("item 1");
+        long generation = cache.generation();
+        cache.invalidate(List.of("items/1"));
+
+        cache.revalidated("item 1", generation, entry);
+
+        assertNull(cache.get("item 1"));
+    }
+
+    @Test
+    void forgetEvictedKeysTest() {
+        properties.getCache().setMaxEntries(2);
+        cache = new ResponseCache(properties, new SimpleMeterRegistry());
+
+        store("item 1", "items/1", etagged());
+        store("item 2", "items/2", etagged());
+        store("item 3", "items/3", etagged());
+        assertNull(cache.get("item 1"));
+
+        store("item 1", "items/1", etagged());
+        assertNull(cache.get("item 2"));
+
+        cache.invalidate(List.of("items/1"));
+
+        assertNull(cache.get("item 1"));
+        assertNotNull(cache.get("item 3"));
+    }
+
+    @Test
+    void moveReplacedKeyToNewResourceTest() {
+        store("item 1", "items/1", etagged());
+        store("item 1", "items/2", etagged());
+
+        cache.invalidate(List.of("items/1"));
+
+        assertNotNull(cache.get("item 1"));
+    }
+
+    private void store(String key, String resource, ResponseEntity<Object> response) {
+        cache.store(key, resource, cache.generation(), response);
+    }
+
+    private static ResponseEntity<Object> etagged() {
+        return ResponseEntity.ok().eTag("\"1\"").body("body");
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.BookingState;
@@ -46,9 +47,13 @@ public class BookingController {
                                          @RequestParam(name = "state",
                                                  required = false,
                                                  defaultValue = "ALL") BookingState state,
+                                         @RequestParam(name = "after", required = false) String after,
                                          @RequestParam(name = "from", defaultValue = "0") Integer from,
                                          @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Получение списка всех бронирований текущего пользователяс id = {}", userId);
+        if (after != null) {
+            return bookingService.getAllByUser(userId, state, BookingCursor.parse(after), size);
+        }
         return bookingService.getAllByUser(userId, state, from, size);
     }
 
@@ -57,9 +62,13 @@ public class BookingController {
                                           @RequestParam(name = "state",
                                                   required = false,
                                                   defaultValue = "ALL") BookingState state,
+                                          @RequestParam(name = "after", required = false) String after,
                                           @RequestParam(name = "from", defaultValue = "0") Integer from,
                                           @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Получение списка всех бронирований текущего владельца id = {}", userId);
+        if (after != null) {
+            return bookingService.getAllByOwner(userId, state, BookingCursor.parse(after), size);
+        }
         return bookingService.getAllByOwner(userId, state, from, size);
     }
 }
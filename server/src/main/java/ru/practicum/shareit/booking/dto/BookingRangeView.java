@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface BookingRangeView {
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
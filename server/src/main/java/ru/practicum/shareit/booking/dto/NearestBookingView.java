@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface NearestBookingView {
+
+    Long getId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    Boolean getIsLast();
+}
@@ -8,6 +8,10 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@NamedEntityGraph(name = Booking.WITH_BOOKER_AND_ITEM, attributeNodes = {
+        @NamedAttributeNode("booker"),
+        @NamedAttributeNode("item")
+})
 @Table(name = "bookings")
 @Getter
 @Setter
@@ -15,8 +19,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 public class Booking {
+    public static final String WITH_BOOKER_AND_ITEM = "Booking.withBookerAndItem";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -25,11 +32,11 @@ public class Booking {
     @Column(name = "end_date", nullable = false)
     private LocalDateTime end;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", referencedColumnName = "id", nullable = false)
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id", referencedColumnName = "id", nullable = false)
     private User booker;
 
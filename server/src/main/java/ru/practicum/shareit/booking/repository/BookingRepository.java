@@ -1,43 +1,66 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingRangeView;
+import ru.practicum.shareit.booking.dto.NearestBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(Long bookerId, Long itemId,
-                                                                          BookingStatus status, LocalDateTime end);
-
-    List<Booking> findAllByBookerId(Long userId, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(Long userId, LocalDateTime start, LocalDateTime end);
-
-    List<Booking> findAllByBookerIdAndEndBefore(Long userId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartAfter(Long userId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStatusEquals(Long userId, BookingStatus status, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerId(Long userId, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartAsc(Long userId, LocalDateTime start, LocalDateTime end);
-
-    List<Booking> findAllByItemOwnerIdAndEndBefore(Long userId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStartAfter(Long userId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStatusEquals(Long userId, BookingStatus status, Pageable pageable);
-
-    List<Booking> findAllByItemIdInAndStartBeforeOrderByItemIdAscStartAsc(List<Long> itemIds, LocalDateTime now);
-
-    List<Booking> findAllByItemIdAndStartAfterOrderByStartAsc(Long id, LocalDateTime start);
-
-    List<Booking> findAllByItemIdAndStartBeforeOrderByStartDesc(Long itemId, LocalDateTime now);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+
+    @Override
+    @EntityGraph(Booking.WITH_BOOKER_AND_ITEM)
+    Optional<Booking> findById(Long id);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status = :status AND b.end < :end AND b.booker.id = :bookerId")
+    List<Booking> findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(@Param("bookerId") Long bookerId,
+                                                                          @Param("itemId") Long itemId,
+                                                                          @Param("status") BookingStatus status,
+                                                                          @Param("end") LocalDateTime end);
+
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :start AND b.start < :end")
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(@Param("itemId") Long itemId,
+                                                               @Param("statuses") Collection<BookingStatus> statuses,
+                                                               @Param("end") LocalDateTime end,
+                                                               @Param("start") LocalDateTime start);
+
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status = :status AND b.end > :start AND b.start < :end " +
+            "AND b.id <> :bookingId")
+    boolean existsByItemIdAndIdNotAndStatusAndStartBeforeAndEndAfter(@Param("itemId") Long itemId,
+                                                                     @Param("bookingId") Long bookingId,
+                                                                     @Param("status") BookingStatus status,
+                                                                     @Param("end") LocalDateTime end,
+                                                                     @Param("start") LocalDateTime start);
+
+    @Query("SELECT b.start AS start, b.end AS end " +
+            "FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status = :status")
+    List<BookingRangeView> findAllRangesByItemIdAndStatus(@Param("itemId") Long itemId,
+                                                          @Param("status") BookingStatus status);
+
+    @Query(value = "SELECT r.id AS id, r.start_date AS startDate, r.end_date AS endDate, " +
+            "r.item_id AS itemId, r.booker_id AS bookerId, r.is_last AS isLast " +
+            "FROM (SELECT b.id, b.start_date, b.end_date, b.item_id, b.booker_id, " +
+            "             (b.start_date < :now) AS is_last, " +
+            "             ROW_NUMBER() OVER (PARTITION BY b.item_id, (b.start_date < :now) " +
+            "                 ORDER BY CASE WHEN b.start_date < :now THEN b.start_date END DESC, " +
+            "                          b.start_date ASC) AS rn " +
+            "      FROM bookings b " +
+            "      WHERE b.item_id IN (:itemIds) AND b.start_date <> :now) r " +
+            "WHERE r.rn = 1", nativeQuery = true)
+    List<NearestBookingView> findNearestByItemIds(@Param("itemIds") List<Long> itemIds,
+                                                  @Param("now") LocalDateTime now);
 }
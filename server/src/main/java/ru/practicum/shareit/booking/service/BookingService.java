@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.BookingState;
@@ -16,4 +17,8 @@ public interface BookingService {
     List<BookingDto> getAllByUser(Long userId, BookingState state, int from, int size);
 
     List<BookingDto> getAllByOwner(Long userId, BookingState state, int from, int size);
+
+    List<BookingDto> getAllByUser(Long userId, BookingState state, BookingCursor after, int size);
+
+    List<BookingDto> getAllByOwner(Long userId, BookingState state, BookingCursor after, int size);
 }
@@ -4,28 +4,31 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+import ru.practicum.shareit.common.OffsetPageRequest;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import static ru.practicum.shareit.booking.model.BookingState.UNSUPPORTED_STATUS;
 
 
 @Service
@@ -33,10 +36,16 @@ import static ru.practicum.shareit.booking.model.BookingState.UNSUPPORTED_STATUS
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private final UserRepository userRepository;
+    private final UserExistenceService userExistenceService;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
 
-    private final Sort sort = Sort.by(Sort.Direction.DESC, "start");
+    private final Sort currentSort = Sort.by(Sort.Direction.ASC, "start", "id");
 
     @Override
     @Transactional
@@ -46,7 +55,7 @@ public class BookingServiceImpl implements BookingService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
 
-        Item item = itemRepository.findById(bookingDto.getItemId())
+        Item item = itemRepository.findByIdForUpdate(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена с id: " + bookingDto.getItemId()));
 
         if (!item.getAvailable()) {
@@ -66,6 +75,11 @@ public class BookingServiceImpl implements BookingService {
             throw new BadRequestException("Неверные параметры для времени");
         }
 
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.getId(), ACTIVE_STATUSES,
+                bookingDto.getEnd(), bookingDto.getStart())) {
+            throw new ConflictException("Вещь уже забронирована на указанное время");
+        }
+
         Booking booking = BookingMapper.toBooking(bookingDto);
         booking.setBooker(user);
         booking.setItem(item);
@@ -90,9 +104,23 @@ public class BookingServiceImpl implements BookingService {
             throw new BadRequestException("Бронирование уже подтверждено или отклонено");
         }
 
+        if (Boolean.TRUE.equals(approved)) {
+            itemRepository.findByIdForUpdate(booking.getItem().getId());
+            if (bookingRepository.existsByItemIdAndIdNotAndStatusAndStartBeforeAndEndAfter(booking.getItem().getId(),
+                    booking.getId(), BookingStatus.APPROVED, booking.getEnd(), booking.getStart())) {
+                throw new ConflictException("Вещь уже забронирована на указанное время");
+            }
+        }
+
         booking.setStatus(Boolean.TRUE.equals(approved) ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        Booking savedBooking = bookingRepository.save(booking);
 
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        if (savedBooking.getStatus() == BookingStatus.APPROVED) {
+            itemAvailabilityIndex.onBookingApproved(savedBooking.getItem().getId(),
+                    savedBooking.getStart(), savedBooking.getEnd());
+        }
+
+        return BookingMapper.toBookingDto(savedBooking);
     }
 
     @Override
@@ -115,78 +143,68 @@ public class BookingServiceImpl implements BookingService {
         if (from < 0 || size <= 0) {
             throw new BadRequestException("Неверные данные");
         }
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        if (!userExistenceService.exists(userId)) {
+            throw new NotFoundException("Пользователь не найден с id: " + userId);
+        }
 
-        List<Booking> bookingDtos = new ArrayList<>();
-        PageRequest pageRequest = PageRequest.of(from / size, size, sort);
-
-        switch (state) {
-            case ALL:
-                bookingDtos.addAll(bookingRepository.findAllByBookerId(user.getId(), pageRequest));
-                break;
-            case CURRENT:
-                bookingDtos.addAll(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(user.getId(),
-                        LocalDateTime.now(), LocalDateTime.now()));
-                break;
-            case PAST:
-                bookingDtos.addAll(bookingRepository.findAllByBookerIdAndEndBefore(user.getId(), LocalDateTime.now(), pageRequest));
-                break;
-            case FUTURE:
-                bookingDtos.addAll(bookingRepository.findAllByBookerIdAndStartAfter(user.getId(), LocalDateTime.now(), pageRequest));
-                break;
-            case WAITING:
-                bookingDtos.addAll(bookingRepository.findAllByBookerIdAndStatusEquals(user.getId(), BookingStatus.WAITING, pageRequest));
-                break;
-            case REJECTED:
-                bookingDtos.addAll(bookingRepository.findAllByBookerIdAndStatusEquals(user.getId(), BookingStatus.REJECTED, pageRequest));
-                break;
-            default:
-                throw new BadRequestException("Unknown state: " + UNSUPPORTED_STATUS);
-        }
-
-        return bookingDtos.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+        return findPage(BookingSpecifications.byBooker(userId), state, from, size);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllByOwner(Long userId, BookingState state, int from, int size) {
 
         if (from < 0 || size <= 0) {
             throw new BadRequestException("Неверные данные");
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        if (!userExistenceService.exists(userId)) {
+            throw new NotFoundException("Пользователь не найден с id: " + userId);
+        }
+
+        return findPage(BookingSpecifications.byItemOwner(userId), state, from, size);
+    }
 
-        List<Booking> bookingDtos = new ArrayList<>();
-
-        PageRequest pageRequest = PageRequest.of(from / size, size, sort);
-
-        switch (state) {
-            case ALL:
-                bookingDtos.addAll(bookingRepository.findAllByItemOwnerId(user.getId(), pageRequest));
-                break;
-            case CURRENT:
-                bookingDtos.addAll(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartAsc(user.getId(),
-                        LocalDateTime.now(), LocalDateTime.now()));
-                break;
-            case PAST:
-                bookingDtos.addAll(bookingRepository.findAllByItemOwnerIdAndEndBefore(user.getId(), LocalDateTime.now(), pageRequest));
-                break;
-            case FUTURE:
-                bookingDtos.addAll(bookingRepository.findAllByItemOwnerIdAndStartAfter(user.getId(), LocalDateTime.now(), pageRequest));
-                break;
-            case WAITING:
-                bookingDtos.addAll(bookingRepository.findAllByItemOwnerIdAndStatusEquals(user.getId(), BookingStatus.WAITING, pageRequest));
-                break;
-            case REJECTED:
-                bookingDtos.addAll(bookingRepository.findAllByItemOwnerIdAndStatusEquals(user.getId(), BookingStatus.REJECTED, pageRequest));
-                break;
-            default:
-                throw new BadRequestException("Unknown state: " + UNSUPPORTED_STATUS);
-        }
-
-        return bookingDtos.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllByUser(Long userId, BookingState state, BookingCursor after, int size) {
+        if (size <= 0) {
+            throw new BadRequestException("Неверные данные");
+        }
+        if (!userExistenceService.exists(userId)) {
+            throw new NotFoundException("Пользователь не найден с id: " + userId);
+        }
+
+        return findAfter(BookingSpecifications.byBooker(userId), state, after, size);
     }
 
-}
\ No newline at end of file
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllByOwner(Long userId, BookingState state, BookingCursor after, int size) {
+        if (size <= 0) {
+            throw new BadRequestException("Неверные данные");
+        }
+        if (!userExistenceService.exists(userId)) {
+            throw new NotFoundException("Пользователь не найден с id: " + userId);
+        }
+
+        return findAfter(BookingSpecifications.byItemOwner(userId), state, after, size);
+    }
+
+    private List<BookingDto> findPage(Specification<Booking> owner, BookingState state, int from, int size) {
+        Specification<Booking> specification = owner
+                .and(BookingSpecifications.inState(state, LocalDateTime.now()));
+        Sort stateSort = state == BookingState.CURRENT ? currentSort : sort;
+
+        return bookingRepository.findPage(specification, PageRequest.of(from / size, size, stateSort));
+    }
+
+    private List<BookingDto> findAfter(Specification<Booking> owner, BookingState state, BookingCursor after, int size) {
+        boolean ascending = state == BookingState.CURRENT;
+        Specification<Booking> specification = owner
+                .and(BookingSpecifications.inState(state, LocalDateTime.now()))
+                .and(ascending ? BookingSpecifications.after(after) : BookingSpecifications.before(after));
+
+        return bookingRepository.findPage(specification, OffsetPageRequest.of(0, size, ascending ? currentSort : sort));
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,12 +13,15 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RestControllerAdvice
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
+    private static final String BOOKING_OVERLAP_CONSTRAINT = "ex_bookings_approved_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
 
     @ExceptionHandler({NotFoundException.class})
     @ResponseStatus(HttpStatus.NOT_FOUND)
@@ -34,6 +38,23 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler
+    protected ResponseEntity<Object> handleConflictEx(ConflictException ex) {
+        ApiError error = new ApiError("Конфликт данных", ex.getMessage());
+        logger.debug(ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler
+    protected ResponseEntity<Object> handleDataIntegrityViolationEx(DataIntegrityViolationException ex) {
+        if (!isBookingOverlap(ex)) {
+            throw ex;
+        }
+        ApiError error = new ApiError("Конфликт данных", "Вещь уже забронирована на указанное время");
+        logger.debug(ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex,
                                                                   HttpHeaders header, HttpStatus status,
@@ -49,4 +70,11 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(apiError, status);
     }
 
+    private static boolean isBookingOverlap(DataIntegrityViolationException ex) {
+        Throwable cause = ex.getMostSpecificCause();
+        return cause instanceof SQLException
+                && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())
+                && String.valueOf(cause.getMessage()).contains(BOOKING_OVERLAP_CONSTRAINT);
+    }
+
 }
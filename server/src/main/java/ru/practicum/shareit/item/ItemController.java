@@ -2,11 +2,19 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -18,6 +26,7 @@ public class ItemController {
 
     private static final String header = "X-Sharer-User-Id";
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
 
     @GetMapping("/{itemId}")
     public ItemDto getById(@PathVariable Long itemId,
@@ -39,6 +48,19 @@ public class ItemController {
         return itemService.create(itemDto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<ItemDto> createAll(@RequestHeader(header) Long userId,
+                                   @RequestBody List<ItemDto> itemDtos) {
+        log.info("Получен запрос на добавление {} вещей для пользователя с id = {}", itemDtos.size(), userId);
+        return itemService.createAll(itemDtos, userId);
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemImportResultDto importItems(@RequestHeader(header) Long userId,
+                                           HttpServletRequest request) throws IOException {
+        log.info("Получен запрос на импорт вещей для пользователя с id = {}", userId);
+        return itemImportService.importItems(request.getInputStream(), userId);
+    }
 
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestHeader(header) Long userId,
@@ -49,9 +71,12 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text) {
+    public List<ItemDto> search(@RequestParam String text,
+                                @RequestParam(name = "after", required = false) String after,
+                                @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Получен запрос на поиск вещи в аренду для пользователя ");
-        return itemService.search(text);
+        return itemService.search(text, after == null ? null : ItemSearchCursor.parse(after), from, size);
     }
 
     @PostMapping("{itemId}/comment")
@@ -62,4 +87,14 @@ public class ItemController {
         commentDto.setCreated(LocalDateTime.now());
         return itemService.createComment(userId, itemId, commentDto);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        log.info("Получен запрос на проверку доступности вещи с id = {}", itemId);
+        return itemService.getAvailability(itemId, from, to);
+    }
+}
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDetailView;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -23,6 +26,43 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemDto toItemDto(ItemView item) {
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(),
+                item.getAvailable(), item.getRequestId(), item.getSearchRank());
+    }
+
+    public static ItemDto toItemDto(ItemDetailView item) {
+        ItemDto itemDto = ItemDto
+                .builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .requestId(item.getRequestId())
+                .available(item.getAvailable())
+                .build();
+
+        if (item.getLastId() != null) {
+            itemDto.setLastBooking(BookingShortDto.builder()
+                    .id(item.getLastId())
+                    .bookerId(item.getLastBookerId())
+                    .itemId(item.getId())
+                    .start(item.getLastStart())
+                    .end(item.getLastEnd())
+                    .build());
+
+            if (item.getNextId() != null) {
+                itemDto.setNextBooking(BookingShortDto.builder()
+                        .id(item.getNextId())
+                        .bookerId(item.getNextBookerId())
+                        .itemId(item.getId())
+                        .start(item.getNextStart())
+                        .end(item.getNextEnd())
+                        .build());
+            }
+        }
+        return itemDto;
+    }
+
     public static Item toItem(ItemDto itemDto, User user) {
         return Item
                 .builder()
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.availability;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+class BookingIntervalTree {
+    private final TreeMap<LocalDateTime, LocalDateTime> intervals = new TreeMap<>();
+
+    void add(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime mergedStart = start;
+        LocalDateTime mergedEnd = end;
+
+        Map.Entry<LocalDateTime, LocalDateTime> previous = intervals.floorEntry(start);
+        if (previous != null && !previous.getValue().isBefore(start)) {
+            mergedStart = previous.getKey();
+            mergedEnd = max(mergedEnd, previous.getValue());
+            intervals.remove(previous.getKey());
+        }
+
+        Map.Entry<LocalDateTime, LocalDateTime> next = intervals.ceilingEntry(mergedStart);
+        while (next != null && !next.getKey().isAfter(mergedEnd)) {
+            mergedEnd = max(mergedEnd, next.getValue());
+            intervals.remove(next.getKey());
+            next = intervals.ceilingEntry(mergedStart);
+        }
+
+        intervals.put(mergedStart, mergedEnd);
+    }
+
+    boolean isFree(LocalDateTime from, LocalDateTime to) {
+        Map.Entry<LocalDateTime, LocalDateTime> candidate = intervals.lowerEntry(to);
+        return candidate == null || !candidate.getValue().isAfter(from);
+    }
+
+    LocalDateTime nextFreeAfter(LocalDateTime time) {
+        Map.Entry<LocalDateTime, LocalDateTime> candidate = intervals.floorEntry(time);
+        if (candidate != null && candidate.getValue().isAfter(time)) {
+            return candidate.getValue();
+        }
+        return time;
+    }
+
+    int size() {
+        return intervals.size();
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingRangeView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+@Component
+public class ItemAvailabilityIndex {
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final Shard[] shards;
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 ItemRepository itemRepository,
+                                 @Value("${shareit.availability.shards:16}") int shardCount,
+                                 @Value("${shareit.availability.items-per-shard:1024}") int itemsPerShard) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(itemsPerShard);
+        }
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return read(itemId, tree -> tree.isFree(from, to));
+    }
+
+    public LocalDateTime nextFreeAfter(Long itemId, LocalDateTime time) {
+        return read(itemId, tree -> tree.nextFreeAfter(time));
+    }
+
+    public void onBookingApproved(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addIfCached(itemId, start, end);
+                }
+            });
+        } else {
+            addIfCached(itemId, start, end);
+        }
+    }
+
+    public void remove(Long itemId) {
+        Shard shard = shardOf(itemId);
+        synchronized (shard) {
+            shard.trees.remove(itemId);
+            shard.changes++;
+        }
+    }
+
+    private void addIfCached(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Shard shard = shardOf(itemId);
+        synchronized (shard) {
+            BookingIntervalTree tree = shard.trees.get(itemId);
+            if (tree != null) {
+                tree.add(start, end);
+            }
+            shard.changes++;
+        }
+    }
+
+    private <T> T read(Long itemId, Function<BookingIntervalTree, T> query) {
+        Shard shard = shardOf(itemId);
+        long changes;
+        synchronized (shard) {
+            BookingIntervalTree tree = shard.trees.get(itemId);
+            if (tree != null) {
+                return query.apply(tree);
+            }
+            changes = shard.changes;
+        }
+
+        BookingIntervalTree loaded = load(itemId);
+        synchronized (shard) {
+            BookingIntervalTree tree = shard.trees.get(itemId);
+            if (tree != null) {
+                return query.apply(tree);
+            }
+            if (shard.changes == changes) {
+                shard.trees.put(itemId, loaded);
+                return query.apply(loaded);
+            }
+        }
+        return query.apply(loaded);
+    }
+
+    private BookingIntervalTree load(Long itemId) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с таким id не найдена: " + itemId);
+        }
+        BookingIntervalTree tree = new BookingIntervalTree();
+        for (BookingRangeView range : bookingRepository.findAllRangesByItemIdAndStatus(itemId, BookingStatus.APPROVED)) {
+            tree.add(range.getStart(), range.getEnd());
+        }
+        return tree;
+    }
+
+    private Shard shardOf(Long itemId) {
+        return shards[(int) Math.floorMod(itemId, (long) shards.length)];
+    }
+
+    private static class Shard {
+        private final Map<Long, BookingIntervalTree> trees;
+        private long changes;
+
+        Shard(int capacity) {
+            this.trees = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, BookingIntervalTree> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
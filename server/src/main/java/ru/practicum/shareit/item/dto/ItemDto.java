@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
 import java.util.List;
 
 @Getter
@@ -13,11 +16,30 @@ import java.util.List;
 @AllArgsConstructor
 public class ItemDto {
     private Long id;
+
+    @NotBlank(message = "Не указано название вещи")
     private String name;
+
+    @NotBlank(message = "Не указано описание вещи")
     private String description;
+
+    @NotNull(message = "Не указана доступность вещи")
     private Boolean available;
+
     private Long requestId;
     private BookingShortDto nextBooking;
     private BookingShortDto lastBooking;
     private List<CommentDto> comments;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer searchRank;
+
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId) {
+        this(id, name, description, available, requestId, null);
+    }
+
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId,
+                   Integer searchRank) {
+        this(id, name, description, available, requestId, null, null, null, searchRank);
+    }
 }
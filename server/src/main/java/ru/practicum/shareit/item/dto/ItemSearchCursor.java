@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exception.BadRequestException;
+
+@Getter
+@AllArgsConstructor
+public class ItemSearchCursor {
+    private final int rank;
+    private final Long id;
+
+    public static ItemSearchCursor parse(String value) {
+        int separator = value.indexOf(',');
+        if (separator < 0) {
+            throw new BadRequestException("Неверный курсор: " + value);
+        }
+        try {
+            return new ItemSearchCursor(Integer.parseInt(value.substring(0, separator).trim()),
+                    Long.parseLong(value.substring(separator + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Неверный курсор: " + value);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemTextView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+}
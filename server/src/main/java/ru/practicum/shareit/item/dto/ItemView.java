@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemView extends ItemTextView {
+
+    Long getRequestId();
+
+    Integer getSearchRank();
+}
@@ -1,12 +1,24 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long id);
+    @Query("SELECT c.id AS id, c.text AS text, a.name AS authorName, c.created AS created " +
+            "FROM Comment c JOIN c.author a " +
+            "WHERE c.item.id = :itemId " +
+            "ORDER BY c.id")
+    List<CommentView> findViewsByItemId(@Param("itemId") Long itemId);
+
+    @EntityGraph(Comment.WITH_AUTHOR)
+    @Query("SELECT c FROM Comment c WHERE c.item.id IN :itemIds")
+    List<Comment> findAllByItemIdIn(@Param("itemIds") List<Long> itemIds);
 }
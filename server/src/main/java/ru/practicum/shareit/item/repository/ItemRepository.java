@@ -1,26 +1,96 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDetailView;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId);
+    String SEARCH_RANK = "CASE WHEN UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%')) THEN 0 ELSE 1 END";
 
-    @Query("SELECT i " +
+    String PATTERN_RANK = "CASE WHEN i.name ILIKE :pattern THEN 0 ELSE 1 END";
+
+    @Query("SELECT i FROM Item i WHERE i.owner.id = :ownerId ORDER BY i.id")
+    List<Item> findAllByOwnerIdOrderByIdAsc(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT i.id FROM Item i WHERE i.request.user.id = :userId")
+    List<Long> findIdsByRequestUserId(@Param("userId") Long userId);
+
+    @Query(value = "SELECT i.id AS id, i.name AS name, i.description AS description, " +
+            "i.is_available AS available, i.request_id AS requestId, " +
+            "lb.id AS lastId, lb.start_date AS lastStart, lb.end_date AS lastEnd, lb.booker_id AS lastBookerId, " +
+            "nb.id AS nextId, nb.start_date AS nextStart, nb.end_date AS nextEnd, nb.booker_id AS nextBookerId " +
+            "FROM items i " +
+            "LEFT JOIN bookings lb ON lb.id = (SELECT b.id FROM bookings b " +
+            "    WHERE b.item_id = i.id AND i.owner_id = :userId AND b.start_date < :now " +
+            "    ORDER BY b.start_date DESC, b.id DESC LIMIT 1) " +
+            "LEFT JOIN bookings nb ON nb.id = (SELECT b.id FROM bookings b " +
+            "    WHERE b.item_id = i.id AND i.owner_id = :userId AND b.start_date > :now " +
+            "    ORDER BY b.start_date ASC, b.id ASC LIMIT 1) " +
+            "WHERE i.id = :itemId", nativeQuery = true)
+    Optional<ItemDetailView> findDetailById(@Param("itemId") Long itemId,
+                                            @Param("userId") Long userId,
+                                            @Param("now") LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id, " +
+            SEARCH_RANK + ") " +
             "FROM Item i " +
-            "WHERE (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%') ) " +
-            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%'))) " +
-            "AND i.available = true")
-    List<Item> search(String text);
+            "LEFT JOIN i.request r " +
+            "WHERE (UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%') ) " +
+            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%'))) " +
+            "AND i.available = true " +
+            "AND (" + SEARCH_RANK + " > :afterRank " +
+            "OR (" + SEARCH_RANK + " = :afterRank AND i.id > :afterId)) " +
+            "ORDER BY " + SEARCH_RANK + ", i.id")
+    List<ItemDto> search(@Param("text") String text,
+                         @Param("afterRank") int afterRank,
+                         @Param("afterId") Long afterId,
+                         Pageable pageable);
+
+    @Query(value = "SELECT r.id AS id, r.name AS name, r.description AS description, " +
+            "r.is_available AS available, r.request_id AS requestId, r.search_rank AS searchRank " +
+            "FROM (SELECT i.*, " + PATTERN_RANK + " AS search_rank " +
+            "      FROM items i " +
+            "      WHERE (i.name ILIKE :pattern OR i.description ILIKE :pattern) " +
+            "      AND i.is_available = true) r " +
+            "WHERE r.search_rank > :afterRank " +
+            "OR (r.search_rank = :afterRank AND r.id > :afterId) " +
+            "ORDER BY r.search_rank, r.id", nativeQuery = true)
+    List<ItemView> searchByPattern(@Param("pattern") String pattern,
+                                   @Param("afterRank") int afterRank,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
 
-    List<Item> findByRequestId(Long requestId);
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available " +
+            "FROM Item i")
+    List<ItemTextView> findAllTexts();
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "FROM Item i " +
+            "LEFT JOIN i.request r " +
+            "WHERE i.id IN :ids")
+    List<ItemDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
 
-    List<Item> findAllByOwnerIdAndRequestIdNotNull(Long userId);
-}
\ No newline at end of file
+    @Query("SELECT i FROM Item i WHERE i.request.id IN :requestIds")
+    List<Item> findAllByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+}
@@ -0,0 +1,320 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "inverted")
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Timer rebuildTimer;
+    private Index active = new Index();
+    private Map<Long, Document> pending;
+
+    public InvertedIndexItemSearchEngine(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.rebuildTimer = Timer.builder("shareit.search.index.rebuild")
+                .description("Время полной перестройки индекса поиска вещей")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.memory", this, InvertedIndexItemSearchEngine::footprint)
+                .description("Оценка памяти, занимаемой индексом поиска вещей")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.items", this, InvertedIndexItemSearchEngine::size)
+                .description("Количество вещей в индексе поиска")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        rebuildTimer.record(() -> {
+            lock.writeLock().lock();
+            try {
+                pending = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Index rebuilt = new Index();
+            int size = 0;
+            boolean loaded = false;
+            try {
+                itemRepository.findAllTexts().forEach(item -> rebuilt.put(item.getId(),
+                        new Document(item.getName(), item.getDescription(), item.getAvailable())));
+                loaded = true;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (loaded) {
+                        pending.forEach(rebuilt::replay);
+                        active = rebuilt;
+                        size = rebuilt.documents.size();
+                    }
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            log.info("Индекс поиска вещей перестроен, вещей в индексе: {}", size);
+        });
+    }
+
+    @Override
+    public List<ItemDto> search(String text, ItemSearchCursor after, Pageable pageable) {
+        Map<Long, Integer> ranks = findPage(text.toLowerCase(Locale.ROOT), after, pageable);
+        if (ranks.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ItemDto> items = itemRepository.findDtosByIdIn(ranks.keySet()).stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+        List<ItemDto> page = new ArrayList<>(ranks.size());
+        ranks.forEach((id, rank) -> {
+            ItemDto item = items.get(id);
+            if (item != null) {
+                item.setSearchRank(rank);
+                page.add(item);
+            }
+        });
+        return page;
+    }
+
+    @Override
+    public void index(Item item) {
+        Document document = new Document(item.getName(), item.getDescription(), item.getAvailable());
+        lock.writeLock().lock();
+        try {
+            active.put(item.getId(), document);
+            if (pending != null) {
+                pending.put(item.getId(), document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            active.remove(itemId);
+            if (pending != null) {
+                pending.put(itemId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long footprint() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Map.Entry<String, LongPostingList> entry : active.postings.entrySet()) {
+                bytes += 56 + 2L * entry.getKey().length() + entry.getValue().footprint();
+            }
+            for (Document document : active.documents.values()) {
+                bytes += 96 + 2L * (document.name.length() + document.description.length());
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return active.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Integer> findPage(String query, ItemSearchCursor after, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Document> documents = active.documents;
+            Stream<Ranked> ranked = findIds(query).stream()
+                    .map(id -> new Ranked(documents.get(id).rank(query), id))
+                    .sorted();
+            if (after != null) {
+                Ranked cursor = new Ranked(after.getRank(), after.getId());
+                ranked = ranked.filter(item -> item.compareTo(cursor) > 0);
+            }
+            return ranked.skip(pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .collect(Collectors.toMap(item -> item.id, item -> item.rank, (a, b) -> a, LinkedHashMap::new));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> findIds(String query) {
+        Map<Long, Document> documents = active.documents;
+        List<Long> ids = new ArrayList<>();
+        if (query.length() < GRAM_LENGTH) {
+            documents.forEach((id, document) -> {
+                if (document.matches(query)) {
+                    ids.add(id);
+                }
+            });
+            return ids;
+        }
+
+        List<LongPostingList> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            LongPostingList list = active.postings.get(gram);
+            if (list == null) {
+                return ids;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(LongPostingList::size));
+
+        LongPostingList smallest = lists.get(0);
+        for (int i = 0; i < smallest.size(); i++) {
+            long id = smallest.get(i);
+            if (containsInAll(lists, id) && documents.get(id).matches(query)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static boolean containsInAll(List<LongPostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalize(String text) {
+        return Objects.requireNonNullElse(text, "").toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static class Ranked implements Comparable<Ranked> {
+        private final int rank;
+        private final long id;
+
+        Ranked(int rank, long id) {
+            this.rank = rank;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Ranked other) {
+            int byRank = Integer.compare(rank, other.rank);
+            return byRank != 0 ? byRank : Long.compare(id, other.id);
+        }
+    }
+
+    private static class Index {
+        private final Map<String, LongPostingList> postings = new HashMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+
+        void put(Long id, Document document) {
+            Document previous = documents.put(id, document);
+            if (previous != null && previous.name.equals(document.name)
+                    && previous.description.equals(document.description)) {
+                return;
+            }
+            if (previous != null) {
+                removePostings(id, previous);
+            }
+            for (String gram : document.grams()) {
+                postings.computeIfAbsent(gram, key -> new LongPostingList()).add(id);
+            }
+        }
+
+        void remove(Long id) {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                removePostings(id, previous);
+            }
+        }
+
+        void replay(Long id, Document document) {
+            if (document == null) {
+                remove(id);
+            } else {
+                put(id, document);
+            }
+        }
+
+        private void removePostings(Long id, Document document) {
+            for (String gram : document.grams()) {
+                LongPostingList list = postings.get(gram);
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static class Document {
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        Document(String name, String description, Boolean available) {
+            this.name = normalize(name);
+            this.description = normalize(description);
+            this.available = Boolean.TRUE.equals(available);
+        }
+
+        int rank(String query) {
+            return name.contains(query) ? 0 : 1;
+        }
+
+        boolean matches(String query) {
+            return available && (name.contains(query) || description.contains(query));
+        }
+
+        Set<String> grams() {
+            Set<String> grams = InvertedIndexItemSearchEngine.grams(name);
+            grams.addAll(InvertedIndexItemSearchEngine.grams(description));
+            return grams;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.user.service.UserExistenceService;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ItemImportService {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ItemService itemService;
+    private final UserExistenceService userExistenceService;
+    private final Validator validator;
+    private final ObjectReader itemReader;
+    private final int chunkSize;
+    private final int maxLineLength;
+
+    public ItemImportService(ItemService itemService,
+                             UserExistenceService userExistenceService,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             @Value("${shareit.items.import.chunk-size:500}") int chunkSize,
+                             @Value("${shareit.items.import.max-line-length:65536}") int maxLineLength) {
+        this.itemService = itemService;
+        this.userExistenceService = userExistenceService;
+        this.validator = validator;
+        this.itemReader = objectMapper.readerFor(ItemDto.class);
+        this.chunkSize = chunkSize;
+        this.maxLineLength = maxLineLength;
+    }
+
+    public ItemImportResultDto importItems(InputStream body, Long userId) throws IOException {
+        if (!userExistenceService.exists(userId)) {
+            throw new NotFoundException("Не найден пользователь с id: " + userId);
+        }
+
+        ItemImportResultDto result = new ItemImportResultDto();
+        List<Line> chunk = new ArrayList<>(chunkSize);
+        try (LineReader reader = new LineReader(new InputStreamReader(body, StandardCharsets.UTF_8), maxLineLength)) {
+            long number = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                number++;
+                if (reader.isTruncated()) {
+                    fail(result, number, "Строка длиннее " + maxLineLength + " символов");
+                    continue;
+                }
+                if (text.isBlank()) {
+                    continue;
+                }
+                ItemDto itemDto;
+                try {
+                    itemDto = itemReader.readValue(text);
+                } catch (JsonProcessingException e) {
+                    fail(result, number, "Некорректный JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                String error = validate(itemDto);
+                if (error != null) {
+                    fail(result, number, error);
+                    continue;
+                }
+                chunk.add(new Line(number, itemDto));
+                if (chunk.size() == chunkSize) {
+                    save(chunk, userId, result);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            save(chunk, userId, result);
+        }
+
+        log.info("Импорт вещей для пользователя с id = {}: добавлено {}, с ошибками {}",
+                userId, result.getCreated(), result.getFailed());
+        return result;
+    }
+
+    private void save(List<Line> chunk, Long userId, ItemImportResultDto result) {
+        List<ItemDto> items = chunk.stream().map(line -> line.item).collect(Collectors.toList());
+        Set<Integer> rejected = new HashSet<>();
+        try {
+            int created = itemService.createAll(items, userId, (index, message) -> {
+                rejected.add(index);
+                fail(result, chunk.get(index).number, message);
+            }).size();
+            result.setCreated(result.getCreated() + created);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить пакет вещей для пользователя с id = {}", userId, e);
+            for (int i = 0; i < chunk.size(); i++) {
+                if (!rejected.contains(i)) {
+                    fail(result, chunk.get(i).number, "Не удалось сохранить вещь");
+                }
+            }
+        }
+    }
+
+    private String validate(ItemDto itemDto) {
+        if (itemDto == null) {
+            return "Ожидался объект вещи";
+        }
+        String errors = validator.validate(itemDto).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        return errors.isEmpty() ? null : errors;
+    }
+
+    private static void fail(ItemImportResultDto result, long number, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ItemImportErrorDto(number, message));
+        }
+    }
+
+    private static class LineReader implements AutoCloseable {
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean truncated;
+
+        private LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        String readLine() throws IOException {
+            line.setLength(0);
+            truncated = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return read ? finish() : null;
+                    }
+                }
+                read = true;
+                char next = buffer[position++];
+                if (next == '\n') {
+                    return finish();
+                }
+                if (line.length() < maxLength) {
+                    line.append(next);
+                } else {
+                    truncated = true;
+                }
+            }
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        private String finish() {
+            int length = line.length();
+            if (length > 0 && line.charAt(length - 1) == '\r') {
+                line.setLength(length - 1);
+            }
+            return line.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static class Line {
+        private final long number;
+        private final ItemDto item;
+
+        private Line(long number, ItemDto item) {
+            this.number = number;
+            this.item = item;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 public interface ItemService {
 
@@ -13,9 +17,15 @@ public interface ItemService {
 
     ItemDto create(ItemDto itemDto, Long userId);
 
+    List<ItemDto> createAll(List<ItemDto> itemDtos, Long userId);
+
+    List<ItemDto> createAll(List<ItemDto> itemDtos, Long userId, BiConsumer<Integer, String> onRejected);
+
     ItemDto update(Long itemId, ItemDto itemDto, Long userId);
 
-    List<ItemDto> search(String text);
+    List<ItemDto> search(String text, ItemSearchCursor after, int from, int size);
 
     CommentDto createComment(Long userId, Long itemId, CommentDto commentDto);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
@@ -4,20 +4,28 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.NearestBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.OffsetPageRequest;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -28,6 +36,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.item.ItemMapper.toItemDto;
@@ -41,6 +52,8 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Override
     public ItemDto create(ItemDto itemDto, Long userId) {
@@ -55,8 +68,51 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(itemRequest);
         }
 
+        Item savedItem = itemRepository.save(item);
+        itemSearchEngine.index(savedItem);
+        return toItemDto(savedItem);
+    }
 
-        return toItemDto(itemRepository.save(item));
+    @Override
+    @Transactional
+    public List<ItemDto> createAll(List<ItemDto> itemDtos, Long userId) {
+        return createAll(itemDtos, userId, (index, message) -> {
+            throw new NotFoundException(message);
+        });
+    }
+
+    @Override
+    @Transactional
+    public List<ItemDto> createAll(List<ItemDto> itemDtos, Long userId, BiConsumer<Integer, String> onRejected) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Не найден пользователь с id: " + userId));
+
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<Item> items = new ArrayList<>(itemDtos.size());
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            Item item = ItemMapper.toItem(itemDto, user);
+            item.setId(null);
+            if (itemDto.getRequestId() != null) {
+                ItemRequest itemRequest = requests.get(itemDto.getRequestId());
+                if (itemRequest == null) {
+                    onRejected.accept(i, "Не найден запрос с id: " + itemDto.getRequestId());
+                    continue;
+                }
+                item.setRequest(itemRequest);
+            }
+            items.add(item);
+        }
+
+        List<Item> savedItems = itemRepository.saveAll(items);
+        indexAfterCommit(savedItems);
+        return savedItems.stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
     }
 
     @Override
@@ -72,78 +128,70 @@ public class ItemServiceImpl implements ItemService {
         item.setDescription(Objects.requireNonNullElse(itemDto.getDescription(), item.getDescription()));
         item.setAvailable(Objects.requireNonNullElse(itemDto.getAvailable(), item.getAvailable()));
 
-        return toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchEngine.index(savedItem);
+        return toItemDto(savedItem);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemDto getById(Long itemId, Long userId) {
-        Item item = itemRepository.findById(itemId)
+        ItemDto itemDto = itemRepository.findDetailById(itemId, userId, LocalDateTime.now())
+                .map(ItemMapper::toItemDto)
                 .orElseThrow(() -> new NotFoundException("Вещь с таким id не найдена: " + itemId));
-        ItemDto itemDto = ItemMapper.toItemDto(item);
-        itemDto.setComments(commentRepository.findAllByItemId(itemId).stream()
+        itemDto.setComments(commentRepository.findViewsByItemId(itemId).stream()
                 .map(CommentMapper::toCommentDto).collect(Collectors.toList()));
 
-        if (item.getOwner().getId().equals(userId)) {
-            List<Booking> lastBookings = bookingRepository.findAllByItemIdAndStartBeforeOrderByStartDesc(itemId, LocalDateTime.now());
-            if (!lastBookings.isEmpty()) {
-                itemDto.setLastBooking(BookingMapper.toBookingShortDto(lastBookings.get(0)));
-            }
-
-            if (itemDto.getLastBooking() != null) {
-                List<Booking> nextBookings = bookingRepository.findAllByItemIdAndStartAfterOrderByStartAsc(itemId, LocalDateTime.now());
-                if (!nextBookings.isEmpty()) {
-                    itemDto.setNextBooking(BookingMapper.toBookingShortDto(nextBookings.get(0)));
-                }
-
-            }
-        }
-
-
         return itemDto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> getAll(Long userId) {
 
         List<Item> items = itemRepository.findAllByOwnerIdOrderByIdAsc(userId);
         List<ItemDto> itemDtos = items.stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
+        if (itemDtos.isEmpty()) {
+            return itemDtos;
+        }
         List<Long> itemIds = itemDtos.stream().map(ItemDto::getId).collect(Collectors.toList());
 
-        List<Booking> lastBookings = bookingRepository
-                .findAllByItemIdInAndStartBeforeOrderByItemIdAscStartAsc(itemIds, LocalDateTime.now());
+        Map<Long, List<NearestBookingView>> itemToBookings = bookingRepository
+                .findNearestByItemIds(itemIds, LocalDateTime.now()).stream()
+                .collect(Collectors.groupingBy(NearestBookingView::getItemId));
 
-        Map<Long, List<Booking>> itemToBooking = lastBookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        Map<Long, List<CommentDto>> itemToComments = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
 
         itemDtos.forEach(itemDto -> {
-            List<Booking> bookings = itemToBooking.get(itemDto.getId());
-            if (bookings != null && !bookings.isEmpty()) {
-                itemDto.setLastBooking(BookingMapper.toBookingShortDto(bookings.get(0)));
-
-                List<Booking> nextBooking = bookingRepository
-                        .findAllByItemIdAndStartAfterOrderByStartAsc(itemDto.getId(), bookings.get(0).getStart());
-                if (!nextBooking.isEmpty()) {
-                    itemDto.setNextBooking(BookingMapper.toBookingShortDto(nextBooking.get(0)));
-                }
-            }
-            itemDto.setComments(commentRepository.findAllByItemId(itemDto.getId()).stream()
-                    .map(CommentMapper::toCommentDto).collect(Collectors.toList()));
+            List<NearestBookingView> bookings = itemToBookings.getOrDefault(itemDto.getId(), List.of());
+            bookings.stream()
+                    .filter(NearestBookingView::getIsLast)
+                    .findFirst()
+                    .ifPresent(last -> {
+                        itemDto.setLastBooking(BookingMapper.toBookingShortDto(last));
+                        bookings.stream()
+                                .filter(booking -> !booking.getIsLast())
+                                .findFirst()
+                                .ifPresent(next -> itemDto.setNextBooking(BookingMapper.toBookingShortDto(next)));
+                    });
+            itemDto.setComments(itemToComments.getOrDefault(itemDto.getId(), new ArrayList<>()));
         });
 
         return itemDtos;
     }
 
     @Override
-    public List<ItemDto> search(String text) {
-        List<ItemDto> items = new ArrayList<>();
-        if (text.isBlank()) {
-            return items;
+    public List<ItemDto> search(String text, ItemSearchCursor after, int from, int size) {
+        if (from < 0 || size <= 0) {
+            throw new BadRequestException("Неверные данные");
         }
-        for (Item item : itemRepository.search(text)) {
-            items.add(ItemMapper.toItemDto(item));
+        if (text.isBlank()) {
+            return new ArrayList<>();
         }
-        return items;
+        OffsetPageRequest pageRequest = OffsetPageRequest.of(after == null ? from : 0, size);
+        return itemSearchEngine.search(text, after, pageRequest);
     }
 
     @Override
@@ -169,4 +217,32 @@ public class ItemServiceImpl implements ItemService {
 
         return ItemMapper.toCommentDto(commentRepository.save(comment));
     }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Неверные параметры для времени");
+        }
+
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .free(itemAvailabilityIndex.isFree(itemId, from, to))
+                .nextFreeSlot(itemAvailabilityIndex.nextFreeAfter(itemId, from))
+                .build();
+    }
+
+    private void indexAfterCommit(List<Item> items) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    items.forEach(itemSearchEngine::index);
+                }
+            });
+        } else {
+            items.forEach(itemSearchEngine::index);
+        }
+    }
 }
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -35,9 +36,13 @@ public class ItemRequestController {
 
     @GetMapping("/all")
     public List<ItemRequestDto> getAll(@RequestHeader(header) long userId,
+                                       @RequestParam(name = "after", required = false) String after,
                                        @RequestParam(name = "from", defaultValue = "0", required = false) int from,
                                        @RequestParam(name = "size", defaultValue = "10", required = false) int size) {
         log.info("Получение списока созданных запросов для пользователя с id = {}", userId);
+        if (after != null) {
+            return itemRequestService.getAll(userId, ItemRequestCursor.parse(after), size);
+        }
         return itemRequestService.getAll(userId, from, size);
     }
 
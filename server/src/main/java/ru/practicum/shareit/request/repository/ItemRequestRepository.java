@@ -3,14 +3,32 @@ package ru.practicum.shareit.request.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByUserIdOrderByCreationDateAsc(Long userId);
+    @Query("SELECT r FROM ItemRequest r WHERE r.user.id = :userId ORDER BY r.creationDate")
+    List<ItemRequest> findAllByUserIdOrderByCreationDateAsc(@Param("userId") Long userId);
 
     Page<ItemRequest> findAllByUserNotLikeOrderByCreationDateAsc(User user, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.user.id <> :userId " +
+            "ORDER BY r.creationDate DESC, r.id DESC")
+    List<ItemRequest> findFeed(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.user.id <> :userId " +
+            "AND (r.creationDate < :created OR (r.creationDate = :created AND r.id < :id)) " +
+            "ORDER BY r.creationDate DESC, r.id DESC")
+    List<ItemRequest> findFeedBefore(@Param("userId") Long userId,
+                                     @Param("created") LocalDateTime created,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -11,5 +12,7 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getAll(long userId, int from, int size);
 
+    List<ItemRequestDto> getAll(long userId, ItemRequestCursor after, int size);
+
     ItemRequestDto getRequestById(long userId, long requestId);
 }
@@ -4,21 +4,25 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.OffsetPageRequest;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,6 +32,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final UserExistenceService userExistenceService;
     private final ItemService itemService;
     private final ItemRequestMapper itemRequestMapper;
     private final ItemRepository itemRepository;
@@ -48,58 +53,89 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> getAllByUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        if (!userExistenceService.exists(userId)) {
+            throw new NotFoundException("Пользователь не найден с id: " + userId);
+        }
 
         List<ItemRequest> itemRequests =
-                itemRequestRepository.findAllByUserIdOrderByCreationDateAsc(user.getId());
+                itemRequestRepository.findAllByUserIdOrderByCreationDateAsc(userId);
         List<ItemRequestDto> requests = itemRequests.stream()
                 .map(ItemRequestMapper::toItemRequestDto)
                 .collect(Collectors.toList());
-        requests.forEach(this::setItemsToItemRequestDto);
+        setItemsToItemRequestDtos(requests);
         return requests;
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> getAll(long userId, int from, int size) {
 
         if (from < 0 || size <= 0) {
             throw new BadRequestException("Неверные данные");
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        if (!userExistenceService.exists(userId)) {
+            throw new NotFoundException("Пользователь не найден с id: " + userId);
+        }
 
-        List<Item> items = itemRepository.findAllByOwnerIdAndRequestIdNotNull(userId);
-        List<ItemRequestDto> itemRequestDtos = items.stream()
-                .map(Item::getRequest)
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        return toItemRequestDtosWithItems(itemRequestRepository.findFeed(userId, OffsetPageRequest.of(from, size)));
+    }
 
-        itemRequestDtos.forEach(this::setItemsToItemRequestDto);
-        return itemRequestDtos;
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getAll(long userId, ItemRequestCursor after, int size) {
+
+        if (size <= 0) {
+            throw new BadRequestException("Неверные данные");
+        }
+
+        if (!userExistenceService.exists(userId)) {
+            throw new NotFoundException("Пользователь не найден с id: " + userId);
+        }
+
+        return toItemRequestDtosWithItems(itemRequestRepository.findFeedBefore(userId,
+                after.getCreated(), after.getId(), OffsetPageRequest.of(0, size)));
     }
 
     @Override
     public ItemRequestDto getRequestById(long userId, long requestId) {
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден с id: " + userId));
+        if (!userExistenceService.exists(userId)) {
+            throw new NotFoundException("Пользователь не найден с id: " + userId);
+        }
 
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос не найден с id: " + requestId));
 
         ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest);
-        setItemsToItemRequestDto(itemRequestDto);
+        setItemsToItemRequestDtos(List.of(itemRequestDto));
         return itemRequestDto;
     }
 
-    private void setItemsToItemRequestDto(ItemRequestDto itemRequestDto) {
-        itemRequestDto.setItems(itemRepository.findByRequestId(itemRequestDto.getId())
-                .stream()
+    private List<ItemRequestDto> toItemRequestDtosWithItems(List<ItemRequest> itemRequests) {
+        List<ItemRequestDto> itemRequestDtos = itemRequests.stream()
+                .map(ItemRequestMapper::toItemRequestDto)
+                .collect(Collectors.toList());
+        setItemsToItemRequestDtos(itemRequestDtos);
+        return itemRequestDtos;
+    }
+
+    private void setItemsToItemRequestDtos(List<ItemRequestDto> itemRequestDtos) {
+        if (itemRequestDtos.isEmpty()) {
+            return;
+        }
+
+        List<Long> requestIds = itemRequestDtos.stream()
+                .map(ItemRequestDto::getId)
+                .distinct()
+                .collect(Collectors.toList());
+
+        Map<Long, List<ItemShortDto>> itemsByRequestId = itemRepository.findAllByRequestIdIn(requestIds).stream()
                 .map(ItemMapper::toItemShortDto)
-                .collect(Collectors.toList()));
+                .collect(Collectors.groupingBy(ItemShortDto::getRequestId));
+
+        itemRequestDtos.forEach(itemRequestDto ->
+                itemRequestDto.setItems(itemsByRequestId.getOrDefault(itemRequestDto.getId(), List.of())));
     }
 
 }
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.BitSet;
+
+@Component
+public class UserExistenceService {
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final BitSet known = new BitSet();
+    private long deletions;
+    private long validatedAt = System.nanoTime();
+
+    public UserExistenceService(UserRepository userRepository,
+                                @Value("${shareit.users.existence.ttl:60s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public boolean exists(Long userId) {
+        if (ttlNanos <= 0 || userId < 0 || userId > Integer.MAX_VALUE) {
+            return userRepository.existsById(userId);
+        }
+        int index = userId.intValue();
+        long deletionsBefore;
+        synchronized (known) {
+            if (System.nanoTime() - validatedAt >= ttlNanos) {
+                known.clear();
+                validatedAt = System.nanoTime();
+            }
+            if (known.get(index)) {
+                return true;
+            }
+            deletionsBefore = deletions;
+        }
+        if (!userRepository.existsById(userId)) {
+            return false;
+        }
+        synchronized (known) {
+            if (deletions == deletionsBefore) {
+                known.set(index);
+            }
+        }
+        return true;
+    }
+
+    public void onUserCreated(Long userId) {
+        afterCommit(() -> set(userId, true));
+    }
+
+    public void onUserDeleted(Long userId) {
+        set(userId, false);
+        afterCommit(() -> set(userId, false));
+    }
+
+    private void set(Long userId, boolean value) {
+        if (userId < 0 || userId > Integer.MAX_VALUE) {
+            return;
+        }
+        synchronized (known) {
+            known.set(userId.intValue(), value);
+            if (!value) {
+                deletions++;
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
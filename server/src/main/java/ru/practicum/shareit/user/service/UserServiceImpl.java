@@ -3,12 +3,20 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import javax.transaction.Transactional;
 import java.util.ArrayList;
 import java.util.List;
@@ -20,6 +28,11 @@ import java.util.Objects;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserExistenceService userExistenceService;
+    private final ItemRepository itemRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Override
     public List<UserDto> getAll() {
@@ -44,8 +57,9 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public UserDto create(UserDto userDto) {
-        User user = UserMapper.toUser(userDto);
-        return UserMapper.toUserDto(userRepository.save(user));
+        User user = userRepository.save(UserMapper.toUser(userDto));
+        userExistenceService.onUserCreated(user.getId());
+        return UserMapper.toUserDto(user);
     }
 
     @Override
@@ -66,7 +80,30 @@ public class UserServiceImpl implements UserService {
     public void delete(Long userId) {
         userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с таким id не найден: " + userId));
+        List<Long> itemIds = itemRepository.findIdsByRequestUserId(userId);
         userRepository.deleteById(userId);
+        userExistenceService.onUserDeleted(userId);
+        evictCascadedEntities(itemIds);
+    }
+
+    private void evictCascadedEntities(List<Long> itemIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictRequestsAndItems(itemIds);
+                }
+            });
+        } else {
+            evictRequestsAndItems(itemIds);
+        }
+    }
+
+    private void evictRequestsAndItems(List<Long> itemIds) {
+        entityManagerFactory.getCache().evict(ItemRequest.class);
+        entityManagerFactory.getCache().evict(Item.class);
+        itemIds.forEach(itemSearchEngine::remove);
+        itemIds.forEach(itemAvailabilityIndex::remove);
     }
 
 }
\ No newline at end of file
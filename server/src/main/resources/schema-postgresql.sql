@@ -0,0 +1,9 @@
+create EXTENSION IF NOT EXISTS pg_trgm;
+create EXTENSION IF NOT EXISTS btree_gist;
+
+create INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (name gin_trgm_ops);
+create INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (description gin_trgm_ops);
+
+alter TABLE bookings ADD CONSTRAINT ex_bookings_approved_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status = 'APPROVED');
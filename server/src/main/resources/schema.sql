@@ -3,6 +3,10 @@ drop table IF EXISTS items CASCADE;
 drop table IF EXISTS bookings CASCADE;
 drop table IF EXISTS comments CASCADE;
 drop table IF EXISTS requests CASCADE;
+drop SEQUENCE IF EXISTS requests_seq;
+drop SEQUENCE IF EXISTS items_seq;
+drop SEQUENCE IF EXISTS bookings_seq;
+drop SEQUENCE IF EXISTS comments_seq;
 
 create TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -12,8 +16,13 @@ create TABLE IF NOT EXISTS users (
     CONSTRAINT UQ_USER_EMAIL unique (email)
 );
 
+create SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+create SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+create SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+create SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 create TABLE IF NOT EXISTS requests (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     description TEXT NOT NULL,
     user_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
     creation_date TIMESTAMP WITHOUT TIME ZONE,
@@ -21,7 +30,7 @@ create TABLE IF NOT EXISTS requests (
 );
 
 create TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     name TEXT NOT NULL,
     description TEXT NOT NULL,
     is_available boolean NOT NULL,
@@ -31,7 +40,7 @@ create TABLE IF NOT EXISTS items (
 );
 
 create TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     start_date timestamp WITHOUT TIME ZONE NOT NULL,
     end_date timestamp WITHOUT TIME ZONE NOT NULL,
     item_id BIGINT REFERENCES items(id) ON delete RESTRICT,
@@ -41,10 +50,26 @@ create TABLE IF NOT EXISTS bookings (
 );
 
 create TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     text varchar(1000) NOT NULL,
     item_id BIGINT REFERENCES items(id) ON delete RESTRICT,
     author_id BIGINT REFERENCES users(id) ON delete RESTRICT,
     created_time timestamp WITHOUT TIME ZONE,
     CONSTRAINT pk_comment PRIMARY KEY (id)
 );
+
+create INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+
+create INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+
+create INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+
+create INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+
+create INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+create INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+create INDEX IF NOT EXISTS idx_requests_user_created ON requests (user_id, creation_date);
+
+create INDEX IF NOT EXISTS idx_requests_created ON requests (creation_date DESC, id DESC);
@@ -6,8 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.util.NestedServletException;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.BookingState;
@@ -17,13 +19,17 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -169,4 +175,39 @@ public class BookingControllerMockTest {
 
     }
 
+    @Test
+    void approveOverlappingTest() throws Exception {
+        SQLException cause = new SQLException("ERROR: conflicting key value violates exclusion constraint " +
+                "\"ex_bookings_approved_overlap\"  Detail: Key (item_id, tsrange(start_date, end_date))", "23P01");
+        when(bookingService.update(anyLong(), anyLong(), anyBoolean()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", cause));
+        mvc.perform(patch("/bookings/1?approved=true")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(header, 1L))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Вещь уже забронирована на указанное время")));
+    }
+
+    @Test
+    void approveWithOtherIntegrityViolationTest() {
+        SQLException cause = new SQLException("NULL not allowed for column \"ITEM_ID\"", "23502");
+        when(bookingService.update(anyLong(), anyLong(), anyBoolean()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", cause));
+
+        assertThrows(NestedServletException.class, () -> mvc.perform(patch("/bookings/1?approved=true")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(header, 1L)));
+    }
+
+    @Test
+    void getAllByUserWrongCursorTest() throws Exception {
+        mvc.perform(get("/bookings?after=test")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(header, 2L))
+                .andExpect(status().isBadRequest());
+    }
+
 }
@@ -5,19 +5,26 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+import ru.practicum.shareit.item.dto.ItemDetailView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 
 @DataJpaTest
 public class BookingRepositoryTest {
@@ -66,198 +73,225 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByBookerIdTest() {
+    void findPageByBookerTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
         bookingRepository.save(booking);
-        long bookings = bookingRepository.findAllByBookerId(secondUser.getId(), Pageable.ofSize(10))
+        long bookings = bookingRepository
+                .findPage(BookingSpecifications.byBooker(secondUser.getId())
+                                .and(BookingSpecifications.inState(BookingState.ALL, LocalDateTime.now())),
+                        Pageable.ofSize(10))
                 .size();
         assertThat(bookings, equalTo(1L));
-
     }
 
     @Test
-    void findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBeforeTest() {
+    void findPageByBookerAndCurrentStateTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
-        booking.setStatus(BookingStatus.APPROVED);
         bookingRepository.save(booking);
         long bookings = bookingRepository
-                .findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(secondUser.getId(),
-                        item.getId(),
-                        BookingStatus.APPROVED,
-                        LocalDateTime.now().plusDays(100))
+                .findPage(BookingSpecifications.byBooker(secondUser.getId())
+                                .and(BookingSpecifications.inState(BookingState.CURRENT, LocalDateTime.now().plusDays(1))),
+                        Pageable.ofSize(10))
                 .size();
         assertThat(bookings, equalTo(1L));
-
     }
 
     @Test
-    void findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartAscTest() {
+    void findPageByBookerAndPastStateTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
         bookingRepository.save(booking);
         long bookings = bookingRepository
-                .findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(secondUser.getId(),
-                        LocalDateTime.now().plusDays(1),
-                        LocalDateTime.now().plusDays(5))
+                .findPage(BookingSpecifications.byBooker(secondUser.getId())
+                                .and(BookingSpecifications.inState(BookingState.PAST, LocalDateTime.now().plusDays(100))),
+                        Pageable.ofSize(10))
                 .size();
         assertThat(bookings, equalTo(1L));
     }
 
     @Test
-    void findAllByBookerIdAndEndBeforeTest() {
+    void findPageByBookerAndFutureStateTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
         bookingRepository.save(booking);
         long bookings = bookingRepository
-                .findAllByBookerIdAndEndBefore(secondUser.getId(),
-                        LocalDateTime.now().plusDays(100),
+                .findPage(BookingSpecifications.byBooker(secondUser.getId())
+                                .and(BookingSpecifications.inState(BookingState.FUTURE, LocalDateTime.now().minusDays(1))),
                         Pageable.ofSize(10))
                 .size();
         assertThat(bookings, equalTo(1L));
     }
 
     @Test
-    void findAllByBookerIdAndStartAfterTest() {
+    void findPageByBookerAndRejectedStateTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
+        booking.setStatus(BookingStatus.REJECTED);
         bookingRepository.save(booking);
         long bookings = bookingRepository
-                .findAllByBookerIdAndStartAfter(secondUser.getId(),
-                        LocalDateTime.now().minusDays(1),
+                .findPage(BookingSpecifications.byBooker(secondUser.getId())
+                                .and(BookingSpecifications.inState(BookingState.REJECTED, LocalDateTime.now())),
                         Pageable.ofSize(10))
                 .size();
         assertThat(bookings, equalTo(1L));
     }
 
     @Test
-    void findAllByBookerIdAndStatusEqualsTest() {
+    void findPageByItemOwnerTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
-        booking.setStatus(BookingStatus.APPROVED);
         bookingRepository.save(booking);
         long bookings = bookingRepository
-                .findAllByBookerIdAndStatusEquals(secondUser.getId(),
-                        BookingStatus.APPROVED,
+                .findPage(BookingSpecifications.byItemOwner(firstUser.getId())
+                                .and(BookingSpecifications.inState(BookingState.ALL, LocalDateTime.now())),
                         Pageable.ofSize(10))
                 .size();
         assertThat(bookings, equalTo(1L));
     }
 
     @Test
-    void findAllByItemOwnerIdTest() {
+    void findPageByItemOwnerAndCurrentStateTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
-        booking.setStatus(BookingStatus.APPROVED);
         bookingRepository.save(booking);
         long bookings = bookingRepository
-                .findAllByItemOwnerId(firstUser.getId(),
+                .findPage(BookingSpecifications.byItemOwner(firstUser.getId())
+                                .and(BookingSpecifications.inState(BookingState.CURRENT, LocalDateTime.now().plusDays(1))),
                         Pageable.ofSize(10))
                 .size();
         assertThat(bookings, equalTo(1L));
     }
 
     @Test
-    void findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartAscTest() {
+    void findPageByItemOwnerAndPastStateTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
         bookingRepository.save(booking);
         long bookings = bookingRepository
-                .findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartAsc(firstUser.getId(),
-                        LocalDateTime.now().plusDays(1),
-                        LocalDateTime.now().plusDays(5))
+                .findPage(BookingSpecifications.byItemOwner(firstUser.getId())
+                                .and(BookingSpecifications.inState(BookingState.PAST, LocalDateTime.now().plusDays(20))),
+                        Pageable.ofSize(10))
                 .size();
         assertThat(bookings, equalTo(1L));
     }
 
     @Test
-    void findAllByItemOwnerIdAndEndBeforeTest() {
+    void findPageByItemOwnerAndFutureStateTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
         bookingRepository.save(booking);
         long bookings = bookingRepository
-                .findAllByItemOwnerIdAndEndBefore(firstUser.getId(),
-                        LocalDateTime.now().plusDays(20),
+                .findPage(BookingSpecifications.byItemOwner(firstUser.getId())
+                                .and(BookingSpecifications.inState(BookingState.FUTURE, LocalDateTime.now().minusDays(1))),
                         Pageable.ofSize(10))
                 .size();
         assertThat(bookings, equalTo(1L));
     }
 
     @Test
-    void findAllByItemOwnerIdAndStartAfterTest() {
+    void findPageByItemOwnerAndWaitingStateTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
         bookingRepository.save(booking);
         long bookings = bookingRepository
-                .findAllByItemOwnerIdAndStartAfter(firstUser.getId(),
-                        LocalDateTime.now().minusDays(1),
+                .findPage(BookingSpecifications.byItemOwner(firstUser.getId())
+                                .and(BookingSpecifications.inState(BookingState.WAITING, LocalDateTime.now())),
                         Pageable.ofSize(10))
                 .size();
         assertThat(bookings, equalTo(1L));
     }
 
     @Test
-    void findAllByItemOwnerIdAndStatusEqualsTest() {
+    void findPageAfterCursorTest() {
+        userRepository.save(firstUser);
+        itemRepository.save(item);
+        userRepository.save(secondUser);
+        LocalDateTime start = startDate.truncatedTo(ChronoUnit.SECONDS);
+        booking.setStart(start);
+        bookingRepository.save(booking);
+        Booking next = bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(endDate)
+                .item(item)
+                .booker(secondUser)
+                .status(BookingStatus.WAITING)
+                .build());
+        List<BookingDto> bookings = bookingRepository
+                .findPage(BookingSpecifications.byBooker(secondUser.getId())
+                                .and(BookingSpecifications.before(new BookingCursor(start, next.getId()))),
+                        Pageable.ofSize(10));
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.get(0).getId(), equalTo(booking.getId()));
+        assertThat(bookings.get(0).getItem().getName(), equalTo(item.getName()));
+        assertThat(bookings.get(0).getBooker().getEmail(), equalTo(secondUser.getEmail()));
+    }
+
+    @Test
+    void findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBeforeTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
         booking.setStatus(BookingStatus.APPROVED);
         bookingRepository.save(booking);
         long bookings = bookingRepository
-                .findAllByItemOwnerIdAndStatusEquals(firstUser.getId(),
+                .findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(secondUser.getId(),
+                        item.getId(),
                         BookingStatus.APPROVED,
-                        Pageable.ofSize(10))
+                        LocalDateTime.now().plusDays(100))
                 .size();
         assertThat(bookings, equalTo(1L));
+
     }
 
     @Test
-    void findAllByItemIdInAndStartBeforeOrderByItemIdAscStartAscTest() {
+    void findDetailByIdNextBookingTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
         bookingRepository.save(booking);
-        long bookings = bookingRepository
-                .findAllByItemIdInAndStartBeforeOrderByItemIdAscStartAsc(List.of(item.getId()),
-                        LocalDateTime.now().plusDays(1))
-                .size();
-        assertThat(bookings, equalTo(1L));
+        ItemDetailView detail = itemRepository
+                .findDetailById(item.getId(), firstUser.getId(), LocalDateTime.now().minusDays(1))
+                .orElseThrow();
+        assertThat(detail.getNextId(), equalTo(booking.getId()));
+        assertThat(detail.getLastId(), nullValue());
     }
 
     @Test
-    void findAllByItemIdAndStartAfterOrderByStartAscTest() {
+    void findDetailByIdLastBookingTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
         bookingRepository.save(booking);
-        long bookings = bookingRepository
-                .findAllByItemIdAndStartAfterOrderByStartAsc(item.getId(),
-                        LocalDateTime.now().minusDays(1))
-                .size();
-        assertThat(bookings, equalTo(1L));
+        ItemDetailView detail = itemRepository
+                .findDetailById(item.getId(), firstUser.getId(), LocalDateTime.now().plusDays(1))
+                .orElseThrow();
+        assertThat(detail.getLastId(), equalTo(booking.getId()));
+        assertThat(detail.getLastBookerId(), equalTo(secondUser.getId()));
+        assertThat(detail.getNextId(), nullValue());
     }
 
     @Test
-    void findAllByItemIdAndStartBeforeOrderByStartDescTest() {
+    void findDetailByIdNotOwnerTest() {
         userRepository.save(firstUser);
         itemRepository.save(item);
         userRepository.save(secondUser);
         bookingRepository.save(booking);
-        long bookings = bookingRepository
-                .findAllByItemIdAndStartBeforeOrderByStartDesc(item.getId(),
-                        LocalDateTime.now().plusDays(1))
-                .size();
-        assertThat(bookings, equalTo(1L));
+        ItemDetailView detail = itemRepository
+                .findDetailById(item.getId(), secondUser.getId(), LocalDateTime.now().plusDays(1))
+                .orElseThrow();
+        assertThat(detail.getName(), equalTo(item.getName()));
+        assertThat(detail.getLastId(), nullValue());
     }
 }
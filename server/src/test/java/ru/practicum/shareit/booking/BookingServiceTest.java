@@ -1,28 +1,40 @@
 package ru.practicum.shareit.booking;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -40,6 +52,9 @@ public class BookingServiceTest {
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private BookingShortDto bookingDto;
     private UserDto firstUserDto;
     private UserDto secondUserDto;
@@ -155,6 +170,71 @@ public class BookingServiceTest {
         assertEquals(BookingStatus.APPROVED.name(), existedBooking.getStatus().name());
     }
 
+    @Test
+    void createOverlappingTest() {
+        UserDto owner = userService.create(firstUserDto);
+        ItemDto item = itemService.create(itemDto, owner.getId());
+        UserDto user = userService.create(secondUserDto);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingDto.setItemId(item.getId());
+        bookingDto.setStart(start);
+        bookingDto.setEnd(start.plusDays(2));
+        bookingService.create(bookingDto, user.getId());
+
+        bookingDto.setStart(start.plusDays(1));
+        bookingDto.setEnd(start.plusDays(3));
+        assertThrows(ConflictException.class, () -> bookingService.create(bookingDto, user.getId()));
+
+        bookingDto.setStart(start.plusDays(2));
+        bookingDto.setEnd(start.plusDays(3));
+        assertEquals(BookingStatus.WAITING, bookingService.create(bookingDto, user.getId()).getStatus());
+    }
+
+    @Test
+    void createAfterRejectedTest() {
+        UserDto owner = userService.create(firstUserDto);
+        ItemDto item = itemService.create(itemDto, owner.getId());
+        UserDto user = userService.create(secondUserDto);
+        bookingDto.setItemId(item.getId());
+        BookingDto booking = bookingService.create(bookingDto, user.getId());
+        bookingService.update(booking.getId(), owner.getId(), false);
+
+        assertEquals(BookingStatus.WAITING, bookingService.create(bookingDto, user.getId()).getStatus());
+    }
+
+    @Test
+    void createConcurrentTest() throws InterruptedException {
+        UserDto owner = userService.create(firstUserDto);
+        ItemDto item = itemService.create(itemDto, owner.getId());
+        UserDto user = userService.create(secondUserDto);
+        bookingDto.setItemId(item.getId());
+
+        int attempts = 200;
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        for (int i = 0; i < attempts; i++) {
+            executor.submit(() -> {
+                start.await();
+                try {
+                    bookingService.create(bookingDto, user.getId());
+                    created.incrementAndGet();
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(1, created.get());
+        assertEquals(attempts - 1, conflicts.get());
+        assertEquals(1, bookingService.getAllByOwner(owner.getId(), BookingState.ALL, 0, 10).size());
+    }
+
     @Test
     void updateItemTestByRejected() {
         UserDto owner = userService.create(firstUserDto);
@@ -253,6 +333,65 @@ public class BookingServiceTest {
 
     }
 
+    @Test
+    void getAllByUserAfterCursorTest() {
+        UserDto owner = userService.create(firstUserDto);
+        ItemDto item = itemService.create(itemDto, owner.getId());
+        UserDto user = userService.create(secondUserDto);
+        bookingDto.setItemId(item.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            bookingDto.setStart(start.plusDays(i));
+            bookingDto.setEnd(start.plusDays(i).plusHours(1));
+            bookingService.create(bookingDto, user.getId());
+        }
+
+        List<BookingDto> firstPage = bookingService.getAllByUser(user.getId(), BookingState.ALL, 0, 2);
+        BookingDto last = firstPage.get(firstPage.size() - 1);
+        List<BookingDto> secondPage = bookingService.getAllByUser(user.getId(), BookingState.ALL,
+                new BookingCursor(last.getStart(), last.getId()), 2);
+        BookingDto secondLast = secondPage.get(secondPage.size() - 1);
+        List<BookingDto> thirdPage = bookingService.getAllByOwner(owner.getId(), BookingState.FUTURE,
+                new BookingCursor(secondLast.getStart(), secondLast.getId()), 2);
+
+        assertEquals(start.plusDays(2), secondPage.get(0).getStart());
+        assertEquals(start.plusDays(1), secondPage.get(1).getStart());
+        assertEquals(1, thirdPage.size());
+        assertEquals(start, thirdPage.get(0).getStart());
+        assertThrows(BadRequestException.class, () -> bookingService.getAllByUser(user.getId(), BookingState.ALL,
+                new BookingCursor(start, 1L), 0));
+    }
+
+    @Test
+    void getAllByUserCurrentAfterCursorTest() {
+        UserDto owner = userService.create(firstUserDto);
+        UserDto user = userService.create(secondUserDto);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(5).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            ItemDto item = itemService.create(itemDto, owner.getId());
+            bookingDto.setItemId(item.getId());
+            bookingDto.setStart(start.plusDays(i));
+            bookingDto.setEnd(endDate);
+            bookingService.create(bookingDto, user.getId());
+        }
+
+        List<BookingDto> firstPage = bookingService.getAllByUser(user.getId(), BookingState.CURRENT, 0, 2);
+        BookingDto last = firstPage.get(firstPage.size() - 1);
+        List<BookingDto> secondPage = bookingService.getAllByUser(user.getId(), BookingState.CURRENT,
+                new BookingCursor(last.getStart(), last.getId()), 2);
+        BookingDto secondLast = secondPage.get(secondPage.size() - 1);
+        List<BookingDto> thirdPage = bookingService.getAllByOwner(owner.getId(), BookingState.CURRENT,
+                new BookingCursor(secondLast.getStart(), secondLast.getId()), 2);
+
+        assertEquals(start.plusDays(1), last.getStart());
+        assertEquals(start.plusDays(2), secondPage.get(0).getStart());
+        assertEquals(start.plusDays(3), secondPage.get(1).getStart());
+        assertEquals(1, thirdPage.size());
+        assertEquals(start.plusDays(4), thirdPage.get(0).getStart());
+    }
+
     @Test
     void getAllByUserTestByWaiting() {
         UserDto owner = userService.create(firstUserDto);
@@ -495,5 +634,38 @@ public class BookingServiceTest {
         assertThrows(NotFoundException.class, () -> bookingService.getAllByOwner(owner.getId() + 999, BookingState.FUTURE, 1, 10));
     }
 
-
-}
\ No newline at end of file
+    @Test
+    void getAllStatementCountTest() {
+        UserDto owner = userService.create(firstUserDto);
+        UserDto user = userService.create(secondUserDto);
+        for (int i = 1; i <= 3; i++) {
+            ItemDto item = itemService.create(itemDto, owner.getId());
+            bookingService.create(BookingShortDto.builder()
+                    .itemId(item.getId())
+                    .start(LocalDateTime.now().plusDays(i))
+                    .end(LocalDateTime.now().plusDays(i).plusHours(1))
+                    .build(), user.getId());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<BookingDto> byUser = bookingService.getAllByUser(user.getId(), BookingState.ALL, 0, 10);
+        assertEquals(3, byUser.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertEquals(3, bookingService.getAllByOwner(owner.getId(), BookingState.ALL, 0, 10).size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        BookingDto first = byUser.get(0);
+        statistics.clear();
+        assertEquals(2, bookingService.getAllByOwner(owner.getId(), BookingState.ALL,
+                new BookingCursor(first.getStart(), first.getId()), 10).size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertEquals(first.getBooker().getName(), bookingService.getById(first.getId(), user.getId())
+                .getBooker().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
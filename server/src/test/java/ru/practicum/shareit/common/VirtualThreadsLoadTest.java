@@ -0,0 +1,64 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Import(VirtualThreadsLoadTest.SlowController.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"shareit.threads.virtual=true", "server.tomcat.threads.max=2"})
+public class VirtualThreadsLoadTest {
+    private static final int REQUESTS = 100;
+    private static final int TOMCAT_THREADS = 2;
+    private static final long DELAY_MILLIS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void concurrencyIsNotBoundedByTomcatThreadsTest() {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/test/slow")).build();
+
+        long started = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, REQUESTS)
+                .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                .toList();
+        responses.forEach(CompletableFuture::join);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.join().statusCode());
+            assertEquals("true", response.join().body());
+        }
+        long platformMillis = REQUESTS / TOMCAT_THREADS * DELAY_MILLIS;
+        assertTrue(elapsed.toMillis() < platformMillis / 4, elapsed + " vs " + platformMillis + " ms");
+    }
+
+    @TestConfiguration
+    @RestController
+    static class SlowController {
+
+        @GetMapping("/test/slow")
+        public String slow() throws InterruptedException {
+            Thread.sleep(DELAY_MILLIS);
+            return String.valueOf(Thread.currentThread().isVirtual());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Run with: mvn -pl server test -Dtest=WireFormatBenchmarkTest -Dshareit.benchmark=true
+ *
+ * Encodes LIST_SIZE-element GET /bookings/owner and GET /items responses with the server's JSON and Smile
+ * mappers, then decodes them into Object the way the gateway does. Each step runs WARMUP times and is then
+ * timed over ITERATIONS runs on one thread. Payload size and the average time per list are reported.
+ */
+@Slf4j
+@JsonTest
+@Import(WireFormatConfig.class)
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+public class WireFormatBenchmarkTest {
+    private static final int LIST_SIZE = 1000;
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 1000;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Autowired
+    private ObjectMapper jsonMapper;
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Test
+    void bookingsByOwnerTest() {
+        List<BookingDto> bookings = new ArrayList<>();
+        for (long i = 1; i <= LIST_SIZE; i++) {
+            bookings.add(BookingDto.builder()
+                    .id(i)
+                    .start(START.plusHours(i))
+                    .end(START.plusHours(i + 1))
+                    .status(BookingStatus.APPROVED)
+                    .booker(UserDto.builder().id(2L).name("George").email("George@gmail.com").build())
+                    .item(ItemDto.builder().id(i).name("My item").description("Very interesting item")
+                            .available(true).build())
+                    .build());
+        }
+        compare("GET /bookings/owner", bookings);
+    }
+
+    @Test
+    void itemsByOwnerTest() {
+        List<ItemDto> items = new ArrayList<>();
+        for (long i = 1; i <= LIST_SIZE; i++) {
+            items.add(ItemDto.builder()
+                    .id(i)
+                    .name("My item " + i)
+                    .description("Very interesting item")
+                    .available(true)
+                    .lastBooking(BookingShortDto.builder().id(i * 2).bookerId(2L)
+                            .start(START.minusDays(2)).end(START.minusDays(1)).build())
+                    .nextBooking(BookingShortDto.builder().id(i * 2 + 1).bookerId(3L)
+                            .start(START.plusDays(1)).end(START.plusDays(2)).build())
+                    .comments(List.of(CommentDto.builder().id(i).text("Works fine").authorName("George")
+                            .authorId(2L).itemId(i).created(START.minusDays(1)).build()))
+                    .build());
+        }
+        compare("GET /items", items);
+    }
+
+    @SneakyThrows
+    private void compare(String endpoint, List<?> response) {
+        ObjectMapper smileMapper = smileConverter.getObjectMapper();
+        byte[] json = jsonMapper.writeValueAsBytes(response);
+        byte[] smile = smileMapper.writeValueAsBytes(response);
+        assertEquals(jsonMapper.readTree(json), smileMapper.readTree(smile));
+
+        log.info("{}, {} elements: JSON {} KB, {}; Smile {} KB, {}", endpoint, LIST_SIZE,
+                json.length / 1024, timings(jsonMapper, response), smile.length / 1024, timings(smileMapper, response));
+        assertTrue(smile.length < json.length);
+    }
+
+    @SneakyThrows
+    private static String timings(ObjectMapper mapper, List<?> response) {
+        byte[] encoded = mapper.writeValueAsBytes(response);
+        for (int i = 0; i < WARMUP; i++) {
+            mapper.writeValueAsBytes(response);
+            mapper.readValue(encoded, Object.class);
+        }
+
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValueAsBytes(response);
+        }
+        long serialized = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.readValue(encoded, Object.class);
+        }
+        long deserialized = System.nanoTime();
+
+        return String.format("ser %.2f ms / deser %.2f ms",
+                (serialized - started) / 1e6 / ITERATIONS, (deserialized - serialized) / 1e6 / ITERATIONS);
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BookingController.class)
+@Import(WireFormatConfig.class)
+public class WireFormatTest {
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private final String header = "X-Sharer-User-Id";
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+    @MockBean
+    private BookingService bookingService;
+    private ObjectMapper smileMapper;
+    private List<BookingDto> bookings;
+
+    @BeforeEach
+    void init() {
+        smileMapper = smileConverter.getObjectMapper();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+        bookings = new ArrayList<>();
+        for (long i = 1; i <= 1000; i++) {
+            bookings.add(BookingDto.builder()
+                    .id(i)
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + 1))
+                    .status(BookingStatus.APPROVED)
+                    .booker(UserDto.builder()
+                            .id(2L)
+                            .name("George")
+                            .email("George@gmail.com")
+                            .build())
+                    .item(ItemDto.builder()
+                            .id(i)
+                            .name("My item")
+                            .description("Very interesting item")
+                            .available(true)
+                            .build())
+                    .build());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllByOwnerSmileTest() {
+        when(bookingService.getAllByOwner(anyLong(), any(BookingState.class), anyInt(), anyInt()))
+                .thenReturn(bookings);
+
+        byte[] json = mvc.perform(get("/bookings/owner")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(header, 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] smile = mvc.perform(get("/bookings/owner")
+                        .accept(SMILE)
+                        .header(header, 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode fromJson = mapper.readTree(json);
+        JsonNode fromSmile = smileMapper.readTree(smile);
+        assertEquals(fromJson, fromSmile);
+        assertTrue(smile.length < json.length);
+    }
+
+    @Test
+    @SneakyThrows
+    void createFromSmileTest() {
+        BookingDto booking = bookings.get(0);
+        BookingShortDto request = BookingShortDto.builder()
+                .itemId(booking.getItem().getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+        when(bookingService.create(argThat(dto -> booking.getStart().equals(dto.getStart())), anyLong()))
+                .thenReturn(booking);
+
+        byte[] smile = mvc.perform(post("/bookings")
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smileMapper.writeValueAsBytes(request))
+                        .header(header, 2L))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(booking.getId(), smileMapper.readValue(smile, BookingDto.class).getId());
+    }
+}
@@ -0,0 +1,199 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InvertedIndexItemSearchEngine;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "shareit.search.engine=inverted")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class InvertedIndexItemSearchEngineTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private InvertedIndexItemSearchEngine searchEngine;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UserDto owner;
+    private ItemDto itemDto;
+
+    @BeforeEach
+    void init() {
+        owner = userService.create(UserDto.builder()
+                .name("Eric")
+                .email("eric@gmail.com")
+                .build());
+
+        itemDto = ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .build();
+    }
+
+    @Test
+    void searchBySubstringTest() {
+        ItemDto item = itemService.create(itemDto, owner.getId());
+
+        assertEquals(item.getId(), itemService.search("дРелЬ", null, 0, 10).get(0).getId());
+        assertEquals(1, itemService.search("РОСТ", null, 0, 10).size());
+        assertEquals(1, itemService.search("др", null, 0, 10).size());
+        assertEquals(0, itemService.search("отвертка", null, 0, 10).size());
+    }
+
+    @Test
+    void searchAfterUpdateTest() {
+        ItemDto item = itemService.create(itemDto, owner.getId());
+
+        itemService.update(item.getId(), ItemDto.builder().available(false).build(), owner.getId());
+        assertEquals(0, itemService.search("дрель", null, 0, 10).size());
+
+        itemService.update(item.getId(), ItemDto.builder().available(true).name("Отвертка").build(), owner.getId());
+        assertEquals(1, itemService.search("отвер", null, 0, 10).size());
+        assertEquals(1, itemService.search("дрель", null, 0, 10).size());
+
+        itemService.update(item.getId(), ItemDto.builder().description("Крестовая").build(), owner.getId());
+        assertEquals(0, itemService.search("дрель", null, 0, 10).size());
+    }
+
+    @Test
+    void searchRankedTest() {
+        ItemDto byDescription = itemService.create(ItemDto.builder()
+                .name("Сверла")
+                .description("Набор для дрели")
+                .available(true)
+                .build(), owner.getId());
+        ItemDto byName = itemService.create(itemDto, owner.getId());
+
+        ItemDto firstHit = itemService.search("дрел", null, 0, 1).get(0);
+        assertEquals(byName.getId(), firstHit.getId());
+        assertEquals(0, firstHit.getSearchRank());
+        ItemDto secondHit = itemService.search("дрел", null, 1, 1).get(0);
+        assertEquals(byDescription.getId(), secondHit.getId());
+        assertEquals(1, secondHit.getSearchRank());
+
+        itemService.update(byName.getId(), ItemDto.builder().name("Перфоратор").build(), owner.getId());
+
+        assertEquals(byDescription.getId(), itemService.search("дрел",
+                new ItemSearchCursor(firstHit.getSearchRank(), firstHit.getId()), 0, 1).get(0).getId());
+        assertEquals(byName.getId(), itemService.search("дрел",
+                new ItemSearchCursor(secondHit.getSearchRank(), secondHit.getId()), 0, 1).get(0).getId());
+    }
+
+    @Test
+    void rebuildTest() {
+        itemService.create(itemDto, owner.getId());
+        itemService.create(itemDto, owner.getId());
+
+        searchEngine.rebuild();
+
+        assertEquals(2, itemService.search("дрель", null, 0, 10).size());
+        assertEquals(2, meterRegistry.get("shareit.search.index.items").gauge().value());
+        assertTrue(meterRegistry.get("shareit.search.index.memory").gauge().value() > 0);
+        assertTrue(meterRegistry.get("shareit.search.index.rebuild").timer().count() > 0);
+    }
+
+    @Test
+    void skipIndexOnRolledBackCreateAllTest() {
+        itemService.create(itemDto, owner.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.createAll(List.of(itemDto, itemDto), owner.getId());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, meterRegistry.get("shareit.search.index.items").gauge().value());
+        assertEquals(1, itemService.search("дрель", null, 0, 10).size());
+
+        itemService.createAll(List.of(itemDto, itemDto), owner.getId());
+
+        assertEquals(3, meterRegistry.get("shareit.search.index.items").gauge().value());
+    }
+
+    @Test
+    void keepUpdatesMadeDuringRebuildTest() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        InvertedIndexItemSearchEngine engine = new InvertedIndexItemSearchEngine(itemRepository, registry);
+        engine.index(item(1L, "Дрель"));
+        engine.index(item(2L, "Пила"));
+        when(itemRepository.findAllTexts()).thenAnswer(invocation -> {
+            List<ItemTextView> snapshot = List.of(text(1L, "Дрель"), text(2L, "Пила"));
+            engine.index(item(3L, "Молоток"));
+            engine.index(item(4L, "Отвертка"));
+            engine.remove(1L);
+            return snapshot;
+        });
+
+        engine.rebuild();
+
+        assertEquals(3, registry.get("shareit.search.index.items").gauge().value());
+    }
+
+    @Test
+    void removeItemsCascadedFromDeletedUserTest() {
+        UserDto requestor = userService.create(UserDto.builder()
+                .name("George")
+                .email("george@gmail.com")
+                .build());
+        ItemRequestDto request = itemRequestService.create(ItemRequestDto.builder()
+                .description("Нужна дрель")
+                .build(), requestor.getId());
+        itemService.create(itemDto, owner.getId());
+        itemDto.setRequestId(request.getId());
+        itemService.create(itemDto, owner.getId());
+        itemService.create(itemDto, owner.getId());
+
+        userService.delete(requestor.getId());
+
+        assertEquals(1, meterRegistry.get("shareit.search.index.items").gauge().value());
+        assertEquals(1, itemService.search("дрель", null, 0, 10).size());
+    }
+
+    private static Item item(Long id, String name) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(name)
+                .available(true)
+                .build();
+    }
+
+    private static ItemTextView text(Long id, String name) {
+        ItemTextView text = mock(ItemTextView.class);
+        when(text.getId()).thenReturn(id);
+        when(text.getName()).thenReturn(name);
+        when(text.getDescription()).thenReturn(name);
+        when(text.getAvailable()).thenReturn(true);
+        return text;
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRangeView;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {"shareit.availability.shards=1", "shareit.availability.items-per-shard=1"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ItemAvailabilityIndexTest {
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private ItemAvailabilityIndex availabilityIndex;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void init() {
+        owner = userService.create(UserDto.builder()
+                .name("Eric")
+                .email("eric@gmail.com")
+                .build());
+        booker = userService.create(UserDto.builder()
+                .name("George")
+                .email("George@gmail.com")
+                .build());
+        item = itemService.create(ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .build(), owner.getId());
+    }
+
+    @Test
+    void freeWithoutBookingsTest() {
+        assertTrue(availabilityIndex.isFree(item.getId(), start, start.plusDays(1)));
+        assertEquals(start, availabilityIndex.nextFreeAfter(item.getId(), start));
+    }
+
+    @Test
+    void approvedBookingTest() {
+        assertTrue(availabilityIndex.isFree(item.getId(), start, start.plusDays(1)));
+
+        approve(start, start.plusDays(2));
+        approve(start.plusDays(2), start.plusDays(3));
+
+        assertFalse(availabilityIndex.isFree(item.getId(), start.plusHours(1), start.plusHours(2)));
+        assertFalse(availabilityIndex.isFree(item.getId(), start.minusDays(1), start.plusHours(1)));
+        assertTrue(availabilityIndex.isFree(item.getId(), start.minusDays(1), start));
+        assertTrue(availabilityIndex.isFree(item.getId(), start.plusDays(3), start.plusDays(4)));
+        assertEquals(start.plusDays(3), availabilityIndex.nextFreeAfter(item.getId(), start.plusHours(1)));
+    }
+
+    @Test
+    void waitingAndRejectedBookingsTest() {
+        BookingDto waiting = create(start, start.plusDays(1));
+        assertTrue(availabilityIndex.isFree(item.getId(), start, start.plusDays(1)));
+
+        bookingService.update(waiting.getId(), owner.getId(), false);
+        assertTrue(availabilityIndex.isFree(item.getId(), start, start.plusDays(1)));
+    }
+
+    @Test
+    void evictedItemIsReloadedTest() {
+        ItemDto other = itemService.create(ItemDto.builder()
+                .name("Пила")
+                .description("Ручная пила")
+                .available(true)
+                .build(), owner.getId());
+        assertTrue(availabilityIndex.isFree(item.getId(), start, start.plusDays(1)));
+        availabilityIndex.isFree(other.getId(), start, start.plusDays(1));
+
+        approve(start, start.plusDays(1));
+
+        assertFalse(availabilityIndex.isFree(item.getId(), start, start.plusDays(1)));
+    }
+
+    @Test
+    void getAvailabilityTest() {
+        approve(start, start.plusDays(1));
+
+        ItemAvailabilityDto availability = itemService.getAvailability(item.getId(), start, start.plusHours(1));
+
+        assertFalse(availability.getFree());
+        assertEquals(start.plusDays(1), availability.getNextFreeSlot());
+        assertThrows(BadRequestException.class,
+                () -> itemService.getAvailability(item.getId(), start, start));
+        assertThrows(NotFoundException.class,
+                () -> itemService.getAvailability(item.getId() + 99, start, start.plusDays(1)));
+    }
+
+    @Test
+    void getAvailabilityFromIndexWithoutQueriesTest() {
+        itemService.getAvailability(item.getId(), start, start.plusHours(1));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertTrue(itemService.getAvailability(item.getId(), start, start.plusHours(1)).getFree());
+
+        assertEquals(0, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void skipCachingLoadRacedByApprovalTest() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository, itemRepository, 1, 16);
+        BookingRangeView range = mock(BookingRangeView.class);
+        when(range.getStart()).thenReturn(start);
+        when(range.getEnd()).thenReturn(start.plusDays(1));
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findAllRangesByItemIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenAnswer(invocation -> {
+                    index.onBookingApproved(1L, start, start.plusDays(1));
+                    return List.of();
+                })
+                .thenReturn(List.of(range));
+
+        assertTrue(index.isFree(1L, start, start.plusHours(1)));
+        assertFalse(index.isFree(1L, start, start.plusHours(1)));
+        assertFalse(index.isFree(1L, start, start.plusHours(1)));
+
+        verify(bookingRepository, times(2)).findAllRangesByItemIdAndStatus(1L, BookingStatus.APPROVED);
+    }
+
+    private BookingDto create(LocalDateTime from, LocalDateTime to) {
+        return bookingService.create(BookingShortDto.builder()
+                .itemId(item.getId())
+                .start(from)
+                .end(to)
+                .build(), booker.getId());
+    }
+
+    private void approve(LocalDateTime from, LocalDateTime to) {
+        bookingService.update(create(from, to).getId(), owner.getId(), true);
+    }
+}
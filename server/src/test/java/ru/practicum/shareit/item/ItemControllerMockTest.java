@@ -14,10 +14,15 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
@@ -39,6 +44,8 @@ public class ItemControllerMockTest {
     private ObjectMapper objectMapper;
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private ItemImportService itemImportService;
 
     private CommentDto commentDto;
 
@@ -74,6 +81,48 @@ public class ItemControllerMockTest {
         assertEquals(objectMapper.writeValueAsString(itemToCreate), result);
     }
 
+    @Test
+    @SneakyThrows
+    void createAllTest() {
+        ItemDto itemToCreate = ItemDto.builder()
+                .name("My item")
+                .description("Very interesting item")
+                .available(true)
+                .build();
+        when(itemService.createAll(anyList(), anyLong())).thenReturn(List.of(itemToCreate, itemToCreate));
+
+        mockMvc.perform(post("/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", "1")
+                        .content(objectMapper.writeValueAsString(List.of(itemToCreate, itemToCreate))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[1].name", is(itemToCreate.getName())));
+
+        verify(itemService).createAll(argThat(items -> items.size() == 2), eq(1L));
+    }
+
+    @Test
+    @SneakyThrows
+    void importItemsTest() {
+        ItemImportResultDto importResult = ItemImportResultDto.builder()
+                .created(1)
+                .failed(1)
+                .errors(List.of(new ItemImportErrorDto(2, "Не указано название вещи")))
+                .build();
+        when(itemImportService.importItems(any(), anyLong())).thenReturn(importResult);
+
+        mockMvc.perform(post("/items/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", "1")
+                        .content("{\"name\":\"a\",\"description\":\"b\",\"available\":true}\n{\"name\":\"\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)));
+    }
+
     @SneakyThrows
     @Test
     void updateTest() {
@@ -160,7 +209,7 @@ public class ItemControllerMockTest {
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk());
 
-        verify(itemService, times(1)).search(anyString());
+        verify(itemService, times(1)).search(anyString(), isNull(), anyInt(), anyInt());
     }
 
     @SneakyThrows
@@ -216,4 +265,24 @@ public class ItemControllerMockTest {
                 .andExpect(status().isBadRequest());
     }
 
-}
\ No newline at end of file
+    @SneakyThrows
+    @Test
+    void getAvailabilityTest() {
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .free(true)
+                .build();
+        when(itemService.getAvailability(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(availability);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}/availability", 1)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-02T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1)))
+                .andExpect(jsonPath("$.free", is(true)));
+
+        verify(itemService, times(1)).getAvailability(1L,
+                LocalDateTime.of(2030, 1, 1, 10, 0), LocalDateTime.of(2030, 1, 2, 10, 0));
+    }
+}
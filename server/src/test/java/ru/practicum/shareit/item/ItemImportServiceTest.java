@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImportService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {"shareit.items.import.chunk-size=2", "shareit.items.import.max-line-length=200"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ItemImportServiceTest {
+    @Autowired
+    private ItemImportService itemImportService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    private UserDto userDto;
+
+    @BeforeEach
+    void init() {
+        userDto = UserDto.builder()
+                .name("Eric")
+                .email("eric@gmail.com")
+                .build();
+    }
+
+    @Test
+    @SneakyThrows
+    void importItemsTest() {
+        UserDto user = userService.create(userDto);
+        ItemRequestDto request = itemRequestService.create(ItemRequestDto.builder()
+                .description("description")
+                .build(), user.getId());
+
+        ItemImportResultDto result = itemImportService.importItems(ndjson(
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}",
+                "{\"name\":\"\",\"description\":\"Без названия\",\"available\":true}",
+                "",
+                "{\"name\":\"Пила\",\"description\":\"Циркулярная\",\"available\":false,\"requestId\":"
+                        + request.getId() + "}",
+                "{\"name\":\"Молоток\",",
+                "{\"name\":\"Отвертка\",\"description\":\"Крестовая\",\"available\":true,\"requestId\":999}",
+                "{\"name\":\"Лестница\",\"description\":\"Стремянка\",\"available\":true}"
+        ), user.getId());
+
+        assertEquals(3, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(2L, 5L, 6L), result.getErrors().stream()
+                .map(ItemImportErrorDto::getLine)
+                .collect(Collectors.toList()));
+        assertEquals("Не указано название вещи", result.getErrors().get(0).getMessage());
+        assertEquals("Не найден запрос с id: 999", result.getErrors().get(2).getMessage());
+
+        List<ItemDto> items = itemService.getAll(user.getId());
+        assertEquals(3, items.size());
+        assertEquals(request.getId(), items.get(1).getRequestId());
+    }
+
+    @Test
+    @SneakyThrows
+    void importItemsWithOversizedLineTest() {
+        UserDto user = userService.create(userDto);
+
+        ItemImportResultDto result = itemImportService.importItems(ndjson(
+                "{\"name\":\"Дрель\",\"description\":\"" + "Ударная ".repeat(50) + "\",\"available\":true}",
+                "{\"name\":\"Пила\",\"description\":\"Циркулярная\",\"available\":true}\r"
+        ), user.getId());
+
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(1L, result.getErrors().get(0).getLine());
+        assertEquals("Строка длиннее 200 символов", result.getErrors().get(0).getMessage());
+        assertEquals("Пила", itemService.getAll(user.getId()).get(0).getName());
+    }
+
+    @Test
+    void importItemsWrongUserTest() {
+        assertThrows(NotFoundException.class,
+                () -> itemImportService.importItems(ndjson("{\"name\":\"Дрель\"}"), 999L));
+    }
+
+    private static InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
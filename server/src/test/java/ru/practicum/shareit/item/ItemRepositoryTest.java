@@ -6,7 +6,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.OffsetPageRequest;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -19,6 +22,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -93,7 +97,46 @@ public class ItemRepositoryTest {
         item.setOwner(owner);
         Item items = itemRepository.save(item);
 
-        assertEquals(1, itemRepository.search("interesting").size());
+        assertEquals(1, itemRepository.search("interesting", -1, 0L, OffsetPageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    void searchRankedTest() {
+        User owner = userRepository.save(firstUser);
+        Item byDescription = itemRepository.save(Item.builder()
+                .name("Отвертка")
+                .description("Подходит к дрели")
+                .available(true)
+                .owner(owner)
+                .build());
+        Item byName = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Аккумуляторная")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        List<ItemDto> firstPage = itemRepository.search("дрел", -1, 0L, OffsetPageRequest.of(0, 1));
+        assertEquals(byName.getId(), firstPage.get(0).getId());
+        assertEquals(0, firstPage.get(0).getSearchRank());
+
+        List<ItemDto> nextPage = itemRepository.search("дрел", 0, byName.getId(), OffsetPageRequest.of(0, 1));
+        assertEquals(byDescription.getId(), nextPage.get(0).getId());
+        assertEquals(byDescription.getName(), nextPage.get(0).getName());
+        assertNull(nextPage.get(0).getRequestId());
+        assertEquals(1, nextPage.get(0).getSearchRank());
+    }
+
+    @Test
+    void searchByPatternTest() {
+        User owner = userRepository.save(firstUser);
+        item.setOwner(owner);
+        itemRepository.save(item);
+
+        List<ItemView> found = itemRepository.searchByPattern("%INTEREST%", -1, 0L, OffsetPageRequest.of(0, 10));
+        assertEquals(1, found.size());
+        assertEquals(1, found.get(0).getSearchRank());
+        assertEquals(0, itemRepository.searchByPattern("%100\\%%", -1, 0L, OffsetPageRequest.of(0, 10)).size());
     }
 
 }
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +14,7 @@ import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchCursor;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -19,10 +22,15 @@ import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -38,6 +46,8 @@ public class ItemServiceTest {
     private BookingService bookingService;
     @Autowired
     private ItemRequestService itemRequestService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
     private UserDto firstUserDto;
     private UserDto secondUserDto;
     private ItemDto itemDto;
@@ -121,6 +131,76 @@ public class ItemServiceTest {
         assertThrows(NotFoundException.class, () -> itemService.create(itemDto, user.getId()));
     }
 
+    @Test
+    void createAllTest() {
+        UserDto user = userService.create(firstUserDto);
+        ItemRequestDto request = itemRequestService.create(itemRequestDto, user.getId());
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            itemDtos.add(ItemDto.builder()
+                    .name("item " + i)
+                    .description("description " + i)
+                    .available(true)
+                    .requestId(i == 0 ? request.getId() : null)
+                    .build());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ItemDto> items = itemService.createAll(itemDtos, user.getId());
+
+        assertEquals(120, items.size());
+        assertEquals(120, items.stream().map(ItemDto::getId).distinct().count());
+        assertEquals(request.getId(), items.get(0).getRequestId());
+        assertEquals(120, statistics.getEntityInsertCount());
+        assertEquals(5, statistics.getPrepareStatementCount());
+        assertEquals(120, itemService.getAll(user.getId()).size());
+    }
+
+    @Test
+    void createAllWrongTestWithItemRequest() {
+        UserDto user = userService.create(firstUserDto);
+        ItemDto wrongItemDto = ItemDto.builder()
+                .name("name")
+                .description("description")
+                .available(true)
+                .requestId(999L)
+                .build();
+
+        assertThrows(NotFoundException.class,
+                () -> itemService.createAll(List.of(itemDto, wrongItemDto), user.getId()));
+        assertEquals(0, itemService.getAll(user.getId()).size());
+    }
+
+    @Test
+    void createAllRejectTestWithItemRequest() {
+        UserDto user = userService.create(firstUserDto);
+        ItemRequestDto request = itemRequestService.create(itemRequestDto, user.getId());
+        ItemDto forRequest = ItemDto.builder()
+                .name("name")
+                .description("description")
+                .available(true)
+                .requestId(request.getId())
+                .build();
+        ItemDto wrongItemDto = ItemDto.builder()
+                .name("name")
+                .description("description")
+                .available(true)
+                .requestId(999L)
+                .build();
+        Map<Integer, String> rejected = new HashMap<>();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ItemDto> items = itemService.createAll(List.of(itemDto, wrongItemDto, forRequest), user.getId(),
+                rejected::put);
+
+        assertEquals(Map.of(1, "Не найден запрос с id: 999"), rejected);
+        assertEquals(2, items.size());
+        assertEquals(request.getId(), items.get(1).getRequestId());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
     @Test
     void updateTest() {
         UserDto user = userService.create(firstUserDto);
@@ -175,11 +255,54 @@ public class ItemServiceTest {
         bookingDto.setItemId(item.getId());
         bookingService.create(bookingDto, user.getId());
 
-        bookingDto.setStart(LocalDateTime.now().plusDays(1));
+        bookingDto.setStart(endDate.plusDays(1));
+        bookingDto.setEnd(endDate.plusDays(2));
         bookingService.create(bookingDto, user.getId());
         assertEquals(item.getId(), itemService.getById(item.getId(), owner.getId()).getId());
     }
 
+    @Test
+    void getByIdWithBookingsAndCommentsTest() {
+        UserDto owner = userService.create(firstUserDto);
+        UserDto user = userService.create(secondUserDto);
+        ItemDto item = createItemWithBookingsAndComment(owner.getId(), user.getId());
+
+        ItemDto result = itemService.getById(item.getId(), owner.getId());
+        assertEquals(user.getId(), result.getLastBooking().getBookerId());
+        assertEquals(item.getId(), result.getNextBooking().getItemId());
+        assertEquals(secondUserDto.getName(), result.getComments().get(0).getAuthorName());
+
+        ItemDto forBooker = itemService.getById(item.getId(), user.getId());
+        assertNull(forBooker.getLastBooking());
+        assertEquals(1, forBooker.getComments().size());
+    }
+
+    @Test
+    void getByIdStatementCountDoesNotDependOnBookingCountTest() {
+        UserDto owner = userService.create(firstUserDto);
+        UserDto user = userService.create(secondUserDto);
+        ItemDto item = createItemWithBookingsAndComment(owner.getId(), user.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        itemService.getById(item.getId(), owner.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        for (int i = 3; i < 13; i++) {
+            bookingService.create(BookingShortDto.builder()
+                    .itemId(item.getId())
+                    .start(LocalDateTime.now().plusDays(i))
+                    .end(LocalDateTime.now().plusDays(i).plusHours(1))
+                    .build(), user.getId());
+        }
+
+        statistics.clear();
+        itemService.getById(item.getId(), owner.getId());
+
+        assertEquals(2, statements);
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
     @Test
     void getAllTest() {
         UserDto owner = userService.create(firstUserDto);
@@ -189,18 +312,133 @@ public class ItemServiceTest {
         bookingDto.setItemId(item.getId());
         bookingService.create(bookingDto, user.getId());
 
-        bookingDto.setStart(LocalDateTime.now().plusDays(1));
+        bookingDto.setStart(endDate.plusDays(1));
+        bookingDto.setEnd(endDate.plusDays(2));
         bookingService.create(bookingDto, user.getId());
 
         assertEquals(1, itemService.getAll(owner.getId()).size());
     }
 
+    @Test
+    void getAllWithBookingsAndCommentsTest() {
+        UserDto owner = userService.create(firstUserDto);
+        UserDto user = userService.create(secondUserDto);
+        ItemDto item = createItemWithBookingsAndComment(owner.getId(), user.getId());
+
+        ItemDto result = itemService.getAll(owner.getId()).get(0);
+
+        assertEquals(item.getId(), result.getId());
+        assertEquals(item.getId(), result.getLastBooking().getItemId());
+        assertEquals(item.getId(), result.getNextBooking().getItemId());
+        assertEquals(1, result.getComments().size());
+    }
+
+    @Test
+    void getAllStatementCountDoesNotDependOnItemCountTest() {
+        UserDto owner = userService.create(firstUserDto);
+        UserDto user = userService.create(secondUserDto);
+        createItemWithBookingsAndComment(owner.getId(), user.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        statistics.clear();
+        itemService.getAll(owner.getId());
+        long singleItemStatements = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 10; i++) {
+            createItemWithBookingsAndComment(owner.getId(), user.getId());
+        }
+
+        statistics.clear();
+        List<ItemDto> items = itemService.getAll(owner.getId());
+        long manyItemsStatements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertEquals(11, items.size());
+        assertEquals(singleItemStatements, manyItemsStatements);
+    }
+
+    @Test
+    void getAllAndSearchStatementCountTest() {
+        UserDto owner = userService.create(firstUserDto);
+        UserDto user = userService.create(secondUserDto);
+        for (int i = 0; i < 3; i++) {
+            createItemWithBookingsAndComment(owner.getId(), user.getId());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        assertEquals(3, itemService.getAll(owner.getId()).size());
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertEquals(3, itemService.search("interesting", null, 0, 10).size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private ItemDto createItemWithBookingsAndComment(Long ownerId, Long userId) {
+        ItemDto item = itemService.create(itemDto, ownerId);
+
+        BookingDto pastBooking = bookingService.create(BookingShortDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .build(), userId);
+        bookingService.update(pastBooking.getId(), ownerId, true);
+        bookingService.create(BookingShortDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build(), userId);
+        itemService.createComment(userId, item.getId(), commentDto);
+        return item;
+    }
+
     @Test
     void searchTest() {
         UserDto user = userService.create(firstUserDto);
         ItemDto item = itemService.create(itemDto, user.getId());
 
-        assertEquals(1, itemService.search("interesting").size());
+        assertEquals(1, itemService.search("interesting", null, 0, 10).size());
+    }
+
+    @Test
+    void searchPagedTest() {
+        UserDto user = userService.create(firstUserDto);
+        ItemDto first = itemService.create(itemDto, user.getId());
+        ItemDto second = itemService.create(itemDto, user.getId());
+
+        assertEquals(second.getId(), itemService.search("interesting", null, 1, 1).get(0).getId());
+        ItemDto firstHit = itemService.search("interesting", null, 0, 1).get(0);
+        assertEquals(first.getId(), firstHit.getId());
+        ItemSearchCursor cursor = new ItemSearchCursor(firstHit.getSearchRank(), firstHit.getId());
+        assertEquals(second.getId(), itemService.search("interesting", cursor, 0, 10).get(0).getId());
+        assertThrows(BadRequestException.class, () -> itemService.search("interesting", null, -1, 10));
+    }
+
+    @Test
+    void searchCursorIgnoresRenameTest() {
+        UserDto user = userService.create(firstUserDto);
+        ItemDto byDescription = itemService.create(ItemDto.builder()
+                .name("Сверла")
+                .description("Набор для дрели")
+                .available(true)
+                .build(), user.getId());
+        ItemDto byName = itemService.create(ItemDto.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .build(), user.getId());
+
+        ItemDto firstHit = itemService.search("дрел", null, 0, 1).get(0);
+        assertEquals(byName.getId(), firstHit.getId());
+        itemService.update(byName.getId(), ItemDto.builder().name("Перфоратор").build(), user.getId());
+
+        ItemSearchCursor cursor = new ItemSearchCursor(firstHit.getSearchRank(), firstHit.getId());
+        List<ItemDto> nextPage = itemService.search("дрел", cursor, 0, 10);
+        assertEquals(byDescription.getId(), nextPage.get(0).getId());
+        assertEquals(byName.getId(), nextPage.get(1).getId());
     }
 
     @Test
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.request;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,11 +11,15 @@ import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -27,6 +33,8 @@ public class ItemRequestServiceTest {
     private UserService userService;
     @Autowired
     private ItemService itemService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     private ItemRequestDto itemRequestDto;
 
@@ -75,6 +83,51 @@ public class ItemRequestServiceTest {
         assertEquals(1, itemRequestService.getAllByUser(user.getId()).size());
     }
 
+    @Test
+    void getAllByUserWithItemsTest() {
+        UserDto user = userService.create(userDto);
+        ItemRequestDto first = itemRequestService.create(itemRequestDto, user.getId());
+        ItemRequestDto second = itemRequestService.create(itemRequestDto, user.getId());
+        itemDto.setRequestId(second.getId());
+        ItemDto item = itemService.create(itemDto, user.getId());
+
+        List<ItemRequestDto> requests = itemRequestService.getAllByUser(user.getId());
+
+        assertEquals(0, requests.get(0).getItems().size());
+        assertEquals(item.getId(), requests.get(1).getItems().get(0).getId());
+    }
+
+    @Test
+    void getAllByUserStatementCountDoesNotDependOnRequestCountTest() {
+        UserDto user = userService.create(userDto);
+        createRequestWithItem(user.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        statistics.clear();
+        itemRequestService.getAllByUser(user.getId());
+        long singleRequestStatements = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 10; i++) {
+            createRequestWithItem(user.getId());
+        }
+
+        statistics.clear();
+        List<ItemRequestDto> requests = itemRequestService.getAllByUser(user.getId());
+        long manyRequestsStatements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertEquals(11, requests.size());
+        assertEquals(singleRequestStatements, manyRequestsStatements);
+    }
+
+    private void createRequestWithItem(Long userId) {
+        ItemRequestDto requestDto = itemRequestService.create(itemRequestDto, userId);
+        itemDto.setRequestId(requestDto.getId());
+        itemService.create(itemDto, userId);
+    }
+
     @Test
     void getAllByUserWrongTest() {
         UserDto user = userService.create(userDto);
@@ -85,10 +138,52 @@ public class ItemRequestServiceTest {
     @Test
     void getAllTest() {
         UserDto user = userService.create(userDto);
+        UserDto other = userService.create(UserDto.builder().email("other").name("other").build());
         ItemRequestDto requestDto = itemRequestService.create(itemRequestDto, user.getId());
         itemDto.setRequestId(requestDto.getId());
-        itemService.create(itemDto, user.getId());
-        assertEquals(1, itemRequestService.getAll(user.getId(), 0, 10).size());
+        itemService.create(itemDto, other.getId());
+        assertEquals(0, itemRequestService.getAll(user.getId(), 0, 10).size());
+        assertEquals(1, itemRequestService.getAll(other.getId(), 0, 10).size());
+        assertEquals(1, itemRequestService.getAll(other.getId(), 0, 10).get(0).getItems().size());
+    }
+
+    @Test
+    void getAllStatementCountTest() {
+        UserDto user = userService.create(userDto);
+        UserDto other = userService.create(UserDto.builder().email("other").name("other").build());
+        for (int i = 0; i < 3; i++) {
+            createRequestWithItem(user.getId());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<ItemRequestDto> feed = itemRequestService.getAll(other.getId(), 0, 10);
+        assertEquals(3, feed.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertEquals(3, itemRequestService.getAllByUser(user.getId()).size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllPagedTest() {
+        UserDto user = userService.create(userDto);
+        UserDto other = userService.create(UserDto.builder().email("other").name("other").build());
+        ItemRequestDto first = itemRequestService.create(itemRequestDto, user.getId());
+        ItemRequestDto second = itemRequestService.create(itemRequestDto, user.getId());
+        ItemRequestDto third = itemRequestService.create(itemRequestDto, user.getId());
+
+        List<ItemRequestDto> firstPage = itemRequestService.getAll(other.getId(), 0, 2);
+        ItemRequestDto last = firstPage.get(1);
+        List<ItemRequestDto> nextPage = itemRequestService.getAll(other.getId(),
+                new ItemRequestCursor(last.getCreated(), last.getId()), 2);
+
+        assertEquals(third.getId(), firstPage.get(0).getId());
+        assertEquals(second.getId(), last.getId());
+        assertEquals(1, nextPage.size());
+        assertEquals(first.getId(), nextPage.get(0).getId());
+        assertEquals(first.getId(), itemRequestService.getAll(other.getId(), 2, 2).get(0).getId());
     }
 
     @Test
@@ -0,0 +1,180 @@
+package ru.practicum.shareit.schema;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.schema.SchemaIndexTest$CapturingInspector")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+public class SchemaIndexTest {
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+    private static final Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void init() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class) > 0) {
+            return;
+        }
+        for (Map<String, Object> foreignKey : jdbcTemplate.queryForList("SELECT TABLE_NAME, CONSTRAINT_NAME " +
+                "FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS " +
+                "WHERE CONSTRAINT_TYPE = 'FOREIGN KEY' AND TABLE_SCHEMA = 'PUBLIC'")) {
+            jdbcTemplate.execute("ALTER TABLE " + foreignKey.get("TABLE_NAME") +
+                    " DROP CONSTRAINT " + foreignKey.get("CONSTRAINT_NAME"));
+        }
+        jdbcTemplate.update("INSERT INTO users (id, name, email) " +
+                "SELECT X, 'user' || X, 'user' || X || '@mail.ru' FROM SYSTEM_RANGE(1, 100)");
+        jdbcTemplate.update("INSERT INTO requests (id, description, user_id, creation_date) " +
+                "SELECT X, 'request', MOD(X, 100) + 1, DATEADD(MINUTE, -X, CURRENT_TIMESTAMP) " +
+                "FROM SYSTEM_RANGE(1, 1000)");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                "SELECT X, 'item', 'description', TRUE, MOD(X, 100) + 1, CASEWHEN(MOD(X, 5) = 0, X, NULL) " +
+                "FROM SYSTEM_RANGE(1, 1000)");
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "SELECT X, DATEADD(DAY, MOD(X, 500) - 250, CURRENT_TIMESTAMP), " +
+                "DATEADD(DAY, MOD(X, 500) - 249, CURRENT_TIMESTAMP), MOD(X, 1000) + 1, MOD(X, 100) + 1, " +
+                "CASEWHEN(MOD(X, 3) = 0, 'WAITING', 'APPROVED') FROM SYSTEM_RANGE(1, 20000)");
+        jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id, created_time) " +
+                "SELECT X, 'text', MOD(X, 1000) + 1, MOD(X, 100) + 1, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, 2000)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void bookingsByBookerUseIndexTest() {
+        assertUsesIndex("IDX_BOOKINGS_BOOKER_START",
+                () -> bookingRepository.findPage(BookingSpecifications.byBooker(1L), PageRequest.of(0, 10, sort)));
+        assertUsesIndex("IDX_BOOKINGS_BOOKER_START",
+                () -> bookingRepository.findPage(BookingSpecifications.byBooker(1L)
+                                .and(BookingSpecifications.before(new BookingCursor(now, 100L))),
+                        OffsetPageRequest.of(0, 10, sort)));
+    }
+
+    @Test
+    void bookingOverlapUseIndexTest() {
+        assertUsesIndex("IDX_BOOKINGS_ITEM_START",
+                () -> bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(1L,
+                        List.of(BookingStatus.WAITING, BookingStatus.APPROVED), now.plusDays(1), now));
+        assertUsesIndex("IDX_BOOKINGS_ITEM_START",
+                () -> bookingRepository.existsByItemIdAndIdNotAndStatusAndStartBeforeAndEndAfter(1L, 1L,
+                        BookingStatus.APPROVED, now.plusDays(1), now));
+    }
+
+    @Test
+    void bookingsByItemAndStatusUseIndexTest() {
+        assertUsesIndex("IDX_BOOKINGS_ITEM_STATUS_END",
+                () -> bookingRepository.findAllRangesByItemIdAndStatus(1L, BookingStatus.APPROVED));
+        assertUsesIndex("IDX_BOOKINGS_ITEM_STATUS_END",
+                () -> bookingRepository.findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(1L, 1L,
+                        BookingStatus.APPROVED, now));
+    }
+
+    @Test
+    void nearestBookingsUseIndexTest() {
+        assertUsesIndex("IDX_BOOKINGS_ITEM_START", () -> bookingRepository.findNearestByItemIds(List.of(1L, 2L), now));
+        assertUsesIndex("IDX_BOOKINGS_ITEM_START", () -> itemRepository.findDetailById(1L, 1L, now));
+    }
+
+    @Test
+    void itemsByOwnerUseIndexTest() {
+        assertUsesIndex("IDX_ITEMS_OWNER", () -> itemRepository.findAllByOwnerIdOrderByIdAsc(1L));
+    }
+
+    @Test
+    void itemsByRequestUseIndexTest() {
+        assertUsesIndex("IDX_ITEMS_REQUEST", () -> itemRepository.findAllByRequestIdIn(List.of(5L, 10L)));
+    }
+
+    @Test
+    void commentsByItemUseIndexTest() {
+        assertUsesIndex("IDX_COMMENTS_ITEM", () -> commentRepository.findViewsByItemId(1L));
+        assertUsesIndex("IDX_COMMENTS_ITEM", () -> commentRepository.findAllByItemIdIn(List.of(1L, 2L)));
+    }
+
+    @Test
+    void requestsByUserUseIndexTest() {
+        assertUsesIndex("IDX_REQUESTS_USER_CREATED", () -> itemRequestRepository.findAllByUserIdOrderByCreationDateAsc(1L));
+    }
+
+    @Test
+    void requestsFeedUseIndexTest() {
+        assertUsesIndex("IDX_REQUESTS_CREATED", () -> itemRequestRepository.findFeed(1L, OffsetPageRequest.of(0, 10)));
+        assertUsesIndex("IDX_REQUESTS_CREATED",
+                () -> itemRequestRepository.findFeedBefore(1L, now, 100L, OffsetPageRequest.of(0, 10)));
+    }
+
+    private void assertUsesIndex(String index, Runnable finder) {
+        statements.clear();
+        finder.run();
+        List<String> sqls = new ArrayList<>(statements);
+        assertFalse(sqls.isEmpty());
+        for (String sql : sqls) {
+            String plan = explain(sql);
+            assertTrue(plan.toUpperCase().contains("PUBLIC." + index), sql + "\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
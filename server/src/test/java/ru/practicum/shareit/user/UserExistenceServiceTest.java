@@ -0,0 +1,74 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserExistenceServiceTest {
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void init() {
+        userRepository = mock(UserRepository.class);
+    }
+
+    @Test
+    void rememberExistingUserTest() {
+        UserExistenceService service = new UserExistenceService(userRepository, Duration.ofHours(1));
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertTrue(service.exists(1L));
+        assertTrue(service.exists(1L));
+
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void forgetUserDeletedDuringLookupTest() {
+        UserExistenceService service = new UserExistenceService(userRepository, Duration.ofHours(1));
+        when(userRepository.existsById(1L))
+                .thenAnswer(invocation -> {
+                    service.onUserDeleted(1L);
+                    return true;
+                })
+                .thenReturn(false);
+
+        assertTrue(service.exists(1L));
+        assertFalse(service.exists(1L));
+
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void revalidateAfterTtlTest() throws InterruptedException {
+        UserExistenceService service = new UserExistenceService(userRepository, Duration.ofMillis(50));
+        when(userRepository.existsById(1L)).thenReturn(true, false);
+
+        assertTrue(service.exists(1L));
+        Thread.sleep(100);
+
+        assertFalse(service.exists(1L));
+    }
+
+    @Test
+    void alwaysAskDatabaseWithZeroTtlTest() {
+        UserExistenceService service = new UserExistenceService(userRepository, Duration.ZERO);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        service.onUserCreated(1L);
+
+        assertTrue(service.exists(1L));
+        assertTrue(service.exists(1L));
+
+        verify(userRepository, times(2)).existsById(1L);
+    }
+}
@@ -1,16 +1,25 @@
 package ru.practicum.shareit.user;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserExistenceService;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManagerFactory;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -19,6 +28,12 @@ public class UserServiceTest {
 
     @Autowired
     private UserService userService;
+    @Autowired
+    private UserExistenceService userExistenceService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     private UserDto userDto;
 
@@ -74,6 +89,60 @@ public class UserServiceTest {
         assertEquals(1, userService.getAll().size());
         assertThrows(NotFoundException.class, () -> userService.delete(user.getId() + 99));
     }
-}
 
+    @Test
+    void getByIdFromSecondLevelCacheTest() {
+        UserDto user = userService.create(userDto);
+        userService.getById(user.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        userService.getById(user.getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
 
+    @Test
+    void getByIdAfterUpdateTest() {
+        UserDto user = userService.create(userDto);
+        userService.getById(user.getId());
+
+        user.setName("Vasya");
+        userService.update(user.getId(), user);
+
+        assertEquals("Vasya", userService.getById(user.getId()).getName());
+    }
+
+    @Test
+    void deleteEvictsCascadedRequestsTest() {
+        UserDto author = userService.create(userDto);
+        UserDto reader = userService.create(UserDto.builder()
+                .name("reader")
+                .email("reader@email.com")
+                .build());
+        ItemRequestDto request = itemRequestService.create(ItemRequestDto.builder()
+                .description("description")
+                .build(), author.getId());
+        itemRequestService.getRequestById(reader.getId(), request.getId());
+
+        userService.delete(author.getId());
+
+        assertThrows(NotFoundException.class,
+                () -> itemRequestService.getRequestById(reader.getId(), request.getId()));
+    }
+
+    @Test
+    void existsWithoutQueryTest() {
+        UserDto user = userService.create(userDto);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        assertTrue(userExistenceService.exists(user.getId()));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        userService.delete(user.getId());
+        assertFalse(userExistenceService.exists(user.getId()));
+        assertFalse(userExistenceService.exists(user.getId() + 99));
+    }
+}